@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode ({@code shareit.threads.virtual=true}) that hands every Tomcat request to its own virtual
+ * thread instead of the fixed worker pool, so blocking I/O no longer needs a hand-tuned thread count.
+ * The build still targets Java 11, so the executor is looked up at runtime and the mode refuses to start
+ * on a JVM older than 21. The Docker images run Java 11 unless built with a Java 21 JAVA_IMAGE, so the
+ * mode cannot start in the default images. A reactive application has no Tomcat worker pool to replace
+ * and refuses the mode as well.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    public VirtualThreadsConfig(ApplicationContext context) {
+        if (context instanceof ReactiveWebApplicationContext) {
+            throw new IllegalStateException("shareit.threads.virtual only applies to the servlet stack, "
+                    + "the reactive application is served from Netty event loops");
+        }
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Requests are handled on virtual threads");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("shareit.threads.virtual requires Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executor is not available", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+}
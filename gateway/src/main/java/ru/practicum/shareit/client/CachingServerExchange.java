@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches successful item request reads in the gateway. Entries are keyed by path, parameters and
+ * the requesting user. Item reads are not cached: the last/next bookings shown to the owner change when
+ * a booking starts or ends, without any write this gateway could evict on. A write to items, requests or
+ * users clears the whole cache, since requests list their items; bookings never show up in requests.
+ * Writes are rare next to reads, so precise eviction is not worth tracking.
+ */
+@Slf4j
+public class CachingServerExchange implements ServerExchange {
+    private static final String CACHED_PATH = "/requests";
+    private static final String BOOKINGS = "/bookings";
+
+    private final ServerExchange transport;
+    private final Cache<String, ResponseEntity<Object>> cache;
+    /**
+     * Bumped on every eviction, so that a read which started before a write does not cache its stale result.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingServerExchange(ServerExchange transport, Cache<String, ResponseEntity<Object>> cache) {
+        this.transport = transport;
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            return transport.exchange(method, path, userId, parameters, body)
+                    .doOnNext(response -> {
+                        if (response.getStatusCode().is2xxSuccessful()) {
+                            evict(path);
+                        }
+                    });
+        }
+        if (!path.startsWith(CACHED_PATH)) {
+            return transport.exchange(method, path, userId, parameters, body);
+        }
+        String key = ServerExchange.requestKey(path, userId, parameters);
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long readGeneration = generation.get();
+        return transport.exchange(method, path, userId, parameters, body)
+                .doOnNext(response -> {
+                    if (response.getStatusCode() == HttpStatus.OK && generation.get() == readGeneration) {
+                        cache.put(key, response);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                         MediaType accept) {
+        Mono<ResponseEntity<Flux<DataBuffer>>> call =
+                transport.stream(method, path, userId, parameters, body, contentType, accept);
+        if (method == HttpMethod.GET) {
+            return call;
+        }
+        return call.doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                evict(path);
+            }
+        });
+    }
+
+    private void evict(String path) {
+        if (path.startsWith(BOOKINGS)) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        log.debug("Cached responses evicted after a write to {}", path);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-flight for reads: identical GETs that arrive while one is already on its way to the server wait
+ * for that call and share its response instead of making their own. A write that succeeds detaches the
+ * calls in flight, so reads that arrive after it never get a response the server produced before it.
+ * A shared call leaves the map as soon as it ends, with a response or an error, so a failure is only seen by
+ * the reads that were already waiting for it. A caller that cancels just stops waiting: the call goes on for
+ * the others and leaves the map when the server answers or the transport times out.
+ */
+public class CoalescingServerExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingServerExchange(ServerExchange delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, userId, parameters, body)
+                    .doOnNext(response -> {
+                        if (response.getStatusCode().is2xxSuccessful()) {
+                            inFlight.clear();
+                        }
+                    });
+        }
+        String key = ServerExchange.requestKey(path, userId, parameters);
+        return Mono.defer(() -> inFlight.computeIfAbsent(key,
+                k -> share(k, delegate.exchange(method, path, userId, parameters, body))));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                         MediaType accept) {
+        Mono<ResponseEntity<Flux<DataBuffer>>> call =
+                delegate.stream(method, path, userId, parameters, body, contentType, accept);
+        if (method == HttpMethod.GET) {
+            return call;
+        }
+        return call.doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                inFlight.clear();
+            }
+        });
+    }
+
+    private Mono<ResponseEntity<Object>> share(String key, Mono<ResponseEntity<Object>> call) {
+        AtomicReference<Mono<ResponseEntity<Object>>> shared = new AtomicReference<>();
+        shared.set(call
+                .doFinally(signal -> inFlight.remove(key, shared.get()))
+                .cache());
+        return shared.get();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings of the HTTP client shared by all gateway clients.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    /**
+     * Maximum number of pooled connections.
+     */
+    private int maxTotal = 200;
+    /**
+     * Maximum number of pooled connections per route; the gateway talks to a single server route.
+     */
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * How long a request may wait for a free pooled connection before failing.
+     */
+    private Duration connectionRequestTimeout = Duration.ofMillis(500);
+    /**
+     * Keep-alive used when the server does not send a Keep-Alive header. Kept below the server's idle
+     * timeout so that the gateway does not reuse connections the server has already closed.
+     */
+    private Duration keepAlive = Duration.ofSeconds(15);
+    /**
+     * Idle connections older than this are closed by a background evictor.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    /**
+     * Pooled connections idle for longer than this are re-validated before reuse.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Retry budget of each gateway client. Circuit breakers and bulkheads are configured through the
+ * resilience4j.circuitbreaker.* and resilience4j.bulkhead.* properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+    /**
+     * Retries a client may make per GET it forwards, so that retries add at most this share of load.
+     */
+    private double retryBudgetRatio = 0.1;
+    /**
+     * Retries available before any GET has been forwarded, also the most the budget can save up.
+     */
+    private int retryBudgetReserve = 10;
+    private Duration retryBackoff = Duration.ofMillis(100);
+}
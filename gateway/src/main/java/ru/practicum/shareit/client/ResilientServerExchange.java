@@ -0,0 +1,183 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Guards the calls of each client (bookings, items, users, requests) with its own bulkhead and circuit
+ * breaker, so that a struggling server gets fewer calls instead of a growing queue. 5xx answers count as
+ * failures but still reach the caller as they are. A GET that fails on I/O or with 502/503/504 is retried
+ * once, as long as the client's retry budget allows it. Calls that are shed or cannot reach the server end
+ * in a {@link ServerUnavailableException}. Streams are guarded until the server answers with its headers,
+ * the body that follows is not retried.
+ */
+public class ResilientServerExchange implements ServerExchange {
+    private static final Set<HttpStatus> RETRIED_STATUSES =
+            EnumSet.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ServerExchange transport;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+    private final ResilienceProperties properties;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public ResilientServerExchange(ServerExchange transport, CircuitBreakerRegistry circuitBreakers,
+                                   BulkheadRegistry bulkheads, MeterRegistry meterRegistry,
+                                   ResilienceProperties properties) {
+        this.transport = transport;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        Guard guard = guards.computeIfAbsent(ServerExchange.resource(path), Guard::new);
+        Mono<ResponseEntity<Object>> call = transport.exchange(method, path, userId, parameters, body)
+                .flatMap(response -> response.getStatusCode().is5xxServerError()
+                        ? Mono.error(new ServerErrorResponse(response))
+                        : Mono.just(response))
+                .transform(BulkheadOperator.of(guard.bulkhead))
+                .transform(CircuitBreakerOperator.of(guard.circuitBreaker));
+        if (method == HttpMethod.GET) {
+            call = retried(call, guard);
+        }
+        return call
+                .onErrorResume(ServerErrorResponse.class, error -> Mono.just(error.getResponse()))
+                .onErrorMap(error -> toServerUnavailable(error, guard));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                         MediaType accept) {
+        Guard guard = guards.computeIfAbsent(ServerExchange.resource(path), Guard::new);
+        return transport.stream(method, path, userId, parameters, body, contentType, accept)
+                .transform(BulkheadOperator.of(guard.bulkhead))
+                .transform(CircuitBreakerOperator.of(guard.circuitBreaker))
+                .onErrorMap(error -> toServerUnavailable(error, guard));
+    }
+
+    private Mono<ResponseEntity<Object>> retried(Mono<ResponseEntity<Object>> call, Guard guard) {
+        return Mono.defer(() -> {
+            guard.retryBudget.deposit();
+            return call.onErrorResume(error -> {
+                if (!isRetryable(error)) {
+                    return Mono.error(error);
+                }
+                if (!guard.retryBudget.tryWithdraw()) {
+                    guard.count("shareit.gateway.retries", "outcome", "budget-exhausted");
+                    return Mono.error(error);
+                }
+                guard.count("shareit.gateway.retries", "outcome", "retried");
+                return call.delaySubscription(properties.getRetryBackoff(), Schedulers.boundedElastic());
+            });
+        });
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof ServerErrorResponse) {
+            return RETRIED_STATUSES.contains(((ServerErrorResponse) error).getResponse().getStatusCode());
+        }
+        return isIoError(error);
+    }
+
+    private static boolean isIoError(Throwable error) {
+        return error instanceof ResourceAccessException || error instanceof WebClientRequestException;
+    }
+
+    private Throwable toServerUnavailable(Throwable error, Guard guard) {
+        if (error instanceof CallNotPermittedException) {
+            guard.count("shareit.gateway.rejections", "reason", "circuit-breaker");
+            return new ServerUnavailableException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Server calls for " + guard.name + " are suspended after repeated failures",
+                    guard.circuitBreaker.getCircuitBreakerConfig().getWaitDurationInOpenState(), error);
+        }
+        if (error instanceof BulkheadFullException) {
+            guard.count("shareit.gateway.rejections", "reason", "bulkhead");
+            return new ServerUnavailableException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent server calls for " + guard.name, BULKHEAD_RETRY_AFTER, error);
+        }
+        if (isIoError(error)) {
+            return isTimeout(error)
+                    ? new ServerUnavailableException(HttpStatus.GATEWAY_TIMEOUT, "Server did not answer in time",
+                    null, error)
+                    : new ServerUnavailableException(HttpStatus.BAD_GATEWAY, "Server is unreachable", null, error);
+        }
+        return error;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class Guard {
+        private final String name;
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final RetryBudget retryBudget;
+
+        Guard(String name) {
+            this.name = name;
+            this.circuitBreaker = circuitBreakers.circuitBreaker(name);
+            this.bulkhead = bulkheads.bulkhead(name);
+            this.retryBudget = new RetryBudget(properties.getRetryBudgetRatio(), properties.getRetryBudgetReserve());
+        }
+
+        void count(String meter, String tag, String value) {
+            meterRegistry.counter(meter, "client", name, tag, value).increment();
+        }
+    }
+
+    /**
+     * Carries a 5xx answer through the circuit breaker as a failure, it is unwrapped before the caller sees it.
+     */
+    @Getter
+    private static class ServerErrorResponse extends RuntimeException {
+        private final transient ResponseEntity<Object> response;
+
+        ServerErrorResponse(ResponseEntity<Object> response) {
+            super("Server answered " + response.getStatusCodeValue(), null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the gateway cache for item request reads.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    /**
+     * Upper bound on how stale a cached read can be when the data was changed past this gateway,
+     * e.g. through another gateway instance.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@Component(ServerExchange.TRANSPORT)
+@Profile("!reactive")
+public class RestTemplateServerExchange implements ServerExchange {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private final RestTemplate rest;
+    private final HttpComponentsClientHttpRequestFactory streamingRequestFactory;
+
+    public RestTemplateServerExchange(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                      ClientHttpRequestFactory requestFactory, HttpClient shareItHttpClient) {
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> requestFactory)
+                .errorHandler(new PassThroughErrorHandler())
+                .build();
+        this.streamingRequestFactory = new HttpComponentsClientHttpRequestFactory(shareItHttpClient);
+        streamingRequestFactory.setBufferRequestBody(false);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> makeAndSendRequest(method, path, userId, parameters, body));
+    }
+
+    /**
+     * RestTemplate buffers request bodies and closes the response once it has been read, so streams go
+     * straight through an unbuffered factory over the same pooled client. The connection is released when
+     * the response body has been relayed.
+     */
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                         MediaType accept) {
+        return Mono.fromCallable(() -> {
+            URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+            ClientHttpRequest request = streamingRequestFactory.createRequest(uri, method);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            request.getHeaders().setAccept(List.of(accept));
+            if (body != null) {
+                ((StreamingHttpOutputMessage) request).setBody(outputStream -> DataBufferUtils.write(body, outputStream)
+                        .map(DataBufferUtils::release)
+                        .blockLast());
+            }
+            ClientHttpResponse response = request.execute();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+            MediaType responseType = response.getHeaders().getContentType();
+            if (responseType != null) {
+                responseBuilder.contentType(responseType);
+            }
+            return responseBuilder.body(DataBufferUtils.readInputStream(response::getBody,
+                            DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                    .doFinally(signal -> response.close()));
+        });
+    }
+
+    private ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                      @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        if (parameters != null) {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+        } else {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private static HttpHeaders defaultHeaders(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue());
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null) {
+            responseBuilder.contentType(contentType);
+        }
+        String etag = response.getHeaders().getETag();
+        if (etag != null) {
+            responseBuilder.eTag(etag);
+        }
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    /**
+     * Error statuses are passed through to the gateway client like any other response.
+     */
+    private static class PassThroughErrorHandler extends DefaultResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+    }
+}
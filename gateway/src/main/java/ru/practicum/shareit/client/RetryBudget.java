@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Every forwarded request deposits a fraction of a retry, every retry withdraws a whole one. When the
+ * server fails across the board the budget runs dry and the gateway stops multiplying its load.
+ */
+class RetryBudget {
+    private final double ratio;
+    private final double capacity;
+    private double balance;
+
+    RetryBudget(double ratio, int reserve) {
+        this.ratio = ratio;
+        this.capacity = reserve;
+        this.balance = reserve;
+    }
+
+    synchronized void deposit() {
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sends a gateway request to the ShareIt server. The blocking implementation runs on the calling
+ * servlet thread, the reactive one ({@code reactive} profile) frees it until the server answers.
+ * The response body is handed back as the raw bytes the server sent, with its status, content type and ETag:
+ * the gateway never looks inside, so it does not parse and re-serialize it. Listings too large to hold go
+ * through {@link #stream} instead, which relays the body chunk by chunk as it arrives.
+ */
+public interface ServerExchange {
+    String USER_ID_HEADER = "X-Sharer-User-Id";
+    /**
+     * Bean name of the implementation that actually talks to the server, see {@link ServerExchangeConfig}
+     * for the decorators around it.
+     */
+    String TRANSPORT = "serverTransport";
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * A call whose request and response bodies are passed on chunk by chunk, without buffering. Streams are
+     * never cached, coalesced or retried, the caller must consume the response body to release the connection.
+     */
+    Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                  @Nullable Map<String, Object> parameters,
+                                                  @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                  MediaType accept);
+
+    /**
+     * Identifies a read: the path template, its parameters and the user the server answers for.
+     */
+    static String requestKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        return path + (parameters != null ? new TreeMap<>(parameters) : "") + "#" + userId;
+    }
+
+    /**
+     * The first segment of a path (bookings, items, users, requests), which tells the clients apart.
+     */
+    static String resource(String path) {
+        int end = path.length();
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(1, end);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Assembles the exchange the clients use: request coalescing, then the response cache when it is enabled,
+ * then circuit breakers and bulkheads, then the transport of the active profile. Cache hits and coalesced
+ * reads therefore never take a bulkhead permit.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ServerExchangeConfig {
+
+    @Bean
+    @Primary
+    public ServerExchange serverExchange(@Qualifier(ServerExchange.TRANSPORT) ServerExchange transport,
+                                         ObjectProvider<Cache<String, ResponseEntity<Object>>> shareItResponseCache,
+                                         CircuitBreakerRegistry circuitBreakerRegistry,
+                                         BulkheadRegistry bulkheadRegistry,
+                                         MeterRegistry meterRegistry,
+                                         ResilienceProperties resilienceProperties) {
+        ServerExchange exchange = new ResilientServerExchange(transport, circuitBreakerRegistry, bulkheadRegistry,
+                meterRegistry, resilienceProperties);
+        Cache<String, ResponseEntity<Object>> cache = shareItResponseCache.getIfAvailable();
+        if (cache != null) {
+            exchange = new CachingServerExchange(exchange, cache);
+        }
+        return new CoalescingServerExchange(exchange);
+    }
+}
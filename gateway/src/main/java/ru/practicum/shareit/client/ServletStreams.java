@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Adapts relayed bodies to the servlet stack, which reads and writes streams: Spring MVC can neither bind
+ * nor write a flux of buffers the way WebFlux does.
+ */
+public class ServletStreams {
+    private static final int BUFFER_SIZE = 8192;
+
+    public static Flux<DataBuffer> read(HttpServletRequest request) {
+        return DataBufferUtils.readInputStream(request::getInputStream, DefaultDataBufferFactory.sharedInstance,
+                BUFFER_SIZE);
+    }
+
+    /**
+     * The body is copied to the response output stream on an async request thread as it arrives.
+     */
+    public static ResponseEntity<StreamingResponseBody> write(ResponseEntity<Flux<DataBuffer>> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .body(outputStream -> DataBufferUtils.write(response.getBody(), outputStream)
+                        .map(DataBufferUtils::release)
+                        .blockLast());
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component(ServerExchange.TRANSPORT)
+@Profile("reactive")
+public class WebClientServerExchange implements ServerExchange {
+    private final WebClient webClient;
+
+    public WebClientServerExchange(WebClient shareItWebClient) {
+        this.webClient = shareItWebClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (userId != null) {
+                        headers.set(USER_ID_HEADER, String.valueOf(userId));
+                    }
+                });
+        if (body != null) {
+            request.bodyValue(body);
+        }
+        return request.exchangeToMono(WebClientServerExchange::prepareGatewayResponse);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                         MediaType accept) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .contentType(contentType)
+                .accept(accept)
+                .headers(headers -> {
+                    if (userId != null) {
+                        headers.set(USER_ID_HEADER, String.valueOf(userId));
+                    }
+                });
+        if (body != null) {
+            request.body(BodyInserters.fromDataBuffers(body));
+        }
+        return request.retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue());
+                    MediaType responseType = response.getHeaders().getContentType();
+                    if (responseType != null) {
+                        responseBuilder.contentType(responseType);
+                    }
+                    return responseBuilder.body(response.getBody());
+                });
+    }
+
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode());
+        response.headers().contentType().ifPresent(responseBuilder::contentType);
+        response.headers().header(HttpHeaders.ETAG).stream().findFirst().ifPresent(responseBuilder::eTag);
+        return response.bodyToMono(byte[].class)
+                .map(responseBuilder::<Object>body)
+                .defaultIfEmpty(responseBuilder.build());
+    }
+}
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 
+import javax.validation.ConstraintViolationException;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @RestControllerAdvice
 @Slf4j
@@ -29,6 +34,16 @@ public class ErrorHandler {
         return new ErrorResponse("Unknown state: UNSUPPORTED_STATUS", e.getMessage());
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServerUnavailable(final ServerUnavailableException e) {
+        log.warn("Server call failed: {}", e.getMessage());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatus());
+        if (e.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()));
+        }
+        return response.body(new ErrorResponse(e.getStatus().getReasonPhrase().toUpperCase(), e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentNotValid(final MethodArgumentNotValidException exception) {
@@ -36,4 +51,21 @@ public class ErrorHandler {
         return new ErrorResponse("BAD REQUEST", Objects.requireNonNull(exception.getFieldError())
                 .getDefaultMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolation(final ConstraintViolationException exception) {
+        log.error("Bad request due to validation error:", exception);
+        return new ErrorResponse("BAD REQUEST", exception.getConstraintViolations().stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", ")));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleWebExchangeBind(final WebExchangeBindException exception) {
+        log.error("Bad request due to validation error:", exception);
+        return new ErrorResponse("BAD REQUEST", Objects.requireNonNull(exception.getFieldError())
+                .getDefaultMessage());
+    }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * The server could not be asked: it did not answer in time, could not be reached, or the gateway shed the
+ * call to protect it.
+ */
+@Getter
+public class ServerUnavailableException extends RuntimeException {
+    private final HttpStatus status;
+    @Nullable
+    private final Duration retryAfter;
+
+    public ServerUnavailableException(HttpStatus status, String message, @Nullable Duration retryAfter,
+                                      Throwable cause) {
+        super(message, cause);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
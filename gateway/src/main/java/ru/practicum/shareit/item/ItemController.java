@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,74 +14,92 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
+/**
+ * Streamed imports, {@code POST /items/import}, are relayed by {@link ItemImportController} or
+ * {@link ItemImportWebController}, whichever matches the running web stack.
+ */
 @RestController
+@Validated
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
     public static final String ITEM_OWNER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int BULK_MAX_SIZE = 1000;
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
-                                             @Valid @RequestBody ItemDto itemGateDto) {
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+                                                   @Valid @RequestBody ItemDto itemGateDto) {
         log.info("Create item {}, userId={}", itemGateDto, userId);
         return itemClient.addItem(userId, itemGateDto);
     }
 
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<Object>> addItems(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+                                                 @RequestBody @NotEmpty @Size(max = BULK_MAX_SIZE)
+                                                 List<@Valid ItemDto> itemGateDtos) {
+        log.info("Create {} items, userId={}", itemGateDtos.size(), userId);
+        return itemClient.addItems(userId, itemGateDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
-                                             @PathVariable long itemId,
-                                             @RequestBody ItemDto itemGateDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+                                                   @PathVariable long itemId,
+                                                   @RequestBody ItemDto itemGateDto) {
         log.info("Update item {}, userId={}, itemId={}", itemGateDto, userId, itemId);
         return itemClient.updateItem(userId, itemId, itemGateDto);
     }
 
     @DeleteMapping("/{itemId}")
-    public void deleteItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
-                           @PathVariable long itemId) {
+    public Mono<Void> deleteItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+                                 @PathVariable long itemId) {
         log.info("Delete item with id={}, from userId={}", itemId, userId);
-        itemClient.deleteItem(userId, itemId);
+        return itemClient.deleteItem(userId, itemId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
-                                          @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+                                                @PathVariable long itemId) {
         log.info("Get item with id={}, from userId={}", itemId, userId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUserId(@RequestHeader(ITEM_OWNER_ID_HEADER)long userId,
-                                                   @PositiveOrZero @RequestParam(defaultValue = "0", required = false)
-                                                   Integer from,
-                                                   @Positive @RequestParam(defaultValue = "10", required = false)
-                                                   Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByUserId(@RequestHeader(ITEM_OWNER_ID_HEADER)long userId,
+                                                         @PositiveOrZero @RequestParam(defaultValue = "0", required = false)
+                                                         Integer from,
+                                                         @Positive @RequestParam(defaultValue = "10", required = false)
+                                                         Integer size) {
         log.info("Get items from owner with id: {}", userId);
         return itemClient.getItemsByUserId(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0", required = false)
-                                              Integer from,
-                                              @Positive @RequestParam(defaultValue = "10", required = false)
-                                                  Integer size) {
+    public Mono<ResponseEntity<Object>> searchItems(@RequestParam String text,
+                                                    @PositiveOrZero @RequestParam(defaultValue = "0", required = false)
+                                                    Integer from,
+                                                    @Positive @RequestParam(defaultValue = "10", required = false)
+                                                        Integer size) {
         log.info("Search items with text={}", text);
         return itemClient.searchItems(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
-                                                @PathVariable long itemId,
-                                                @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+                                                      @PathVariable long itemId,
+                                                      @Valid @RequestBody CommentDto commentDto) {
         log.info("Create comment = {} to item with id: {} from user with id: {}", commentDto, itemId, userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
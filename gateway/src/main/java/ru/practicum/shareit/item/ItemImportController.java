@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServletStreams;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static ru.practicum.shareit.item.ItemController.ITEM_OWNER_ID_HEADER;
+
+/**
+ * Relays a streamed import on the servlet stack, see {@link ServletStreams}. The rows are validated one by one
+ * on the server, which answers with a result per row.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemImportController {
+    private final ItemClient itemClient;
+
+    @PostMapping("/import")
+    public Mono<ResponseEntity<StreamingResponseBody>> importItems(
+            @RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest request) {
+        log.info("Import items, userId={}", userId);
+        return itemClient.importItems(userId, ServletStreams.read(request), contentType, accept)
+                .map(ServletStreams::write);
+    }
+}
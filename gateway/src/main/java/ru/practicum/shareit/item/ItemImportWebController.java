@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static ru.practicum.shareit.item.ItemController.ITEM_OWNER_ID_HEADER;
+
+/**
+ * WebFlux counterpart of {@link ItemImportController}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemImportWebController {
+    private final ItemClient itemClient;
+
+    @PostMapping("/import")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> importItems(
+            @RequestHeader(ITEM_OWNER_ID_HEADER) long userId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody Flux<DataBuffer> items) {
+        log.info("Import items, userId={}", userId);
+        return itemClient.importItems(userId, items, contentType, accept);
+    }
+}
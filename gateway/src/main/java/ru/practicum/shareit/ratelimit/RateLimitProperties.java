@@ -0,0 +1,36 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled;
+    /**
+     * Limits by endpoint family, the first path segment (bookings, items, users, requests).
+     * Families without a limit are not throttled.
+     */
+    private Map<String, Limit> families = new HashMap<>();
+    /**
+     * A caller's bucket is dropped after this long without requests, it would be full again by then anyway.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private long maxCallers = 100_000;
+
+    @Getter
+    @Setter
+    public static class Limit {
+        /**
+         * Requests a caller may burst after being idle.
+         */
+        private int capacity = 20;
+        private double refillPerSecond = 10;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per caller and endpoint family. A bucket is a single {@link AtomicLong} holding the moment
+ * it will be full again (the generic cell rate algorithm), so a request costs one map lookup and one
+ * compare-and-set, without locks.
+ */
+public class RateLimiter {
+    private final Map<String, Family> families = new HashMap<>();
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        properties.getFamilies().forEach((name, limit) -> families.put(name, new Family(name, limit, meterRegistry)));
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxCallers())
+                .build();
+    }
+
+    /**
+     * Takes a token for the request. Callers are the sharer id together with the client address, or the address
+     * alone before a user exists: the header is not authenticated, so sending someone else's id must not spend
+     * their tokens.
+     *
+     * @return 0 if the request may pass, otherwise the nanoseconds until the next token
+     */
+    public long tryAcquire(String path, @Nullable String userId, String address) {
+        Family family = families.get(ServerExchange.resource(path));
+        if (family == null) {
+            return 0;
+        }
+        String caller = userId != null ? userId + '@' + address : address;
+        long now = nanoTime.getAsLong();
+        AtomicLong fullAt = buckets.get(family.name + '#' + caller, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + family.interval;
+            long wait = next - now - family.burst;
+            if (wait > 0) {
+                family.throttled.increment();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public static ErrorResponse rejection(String path) {
+        return new ErrorResponse("TOO MANY REQUESTS", "Rate limit exceeded for /" + ServerExchange.resource(path));
+    }
+
+    private static class Family {
+        private final String name;
+        private final long interval;
+        private final long burst;
+        private final Counter throttled;
+
+        Family(String name, RateLimitProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+            this.burst = interval * limit.getCapacity();
+            this.throttled = meterRegistry.counter("shareit.gateway.throttled", "family", name);
+        }
+    }
+}
@@ -1,46 +1,58 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerExchange server) {
+        super(API_PREFIX, server);
     }
 
-    public ResponseEntity<Object> addUser(UserRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserRequestDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> addUsers(List<UserRequestDto> userDtos) {
+        return post("/bulk", userDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateUser(long userId, UserRequestDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public void deleteUser(long userId) {
-        delete("/" + userId);
+    public Mono<Void> deleteUser(long userId) {
+        return delete("/" + userId).then();
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    /**
+     * The full listing, relayed as it arrives: NDJSON if the caller accepts it, a JSON array otherwise.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamUsers(@Nullable String accept) {
+        return stream("", jsonOrNdjson(accept));
+    }
+
+    public Mono<ResponseEntity<Object>> getUsers(long after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("?after={after}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(long userId) {
         return get("/" + userId);
     }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -10,44 +11,64 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
 
+/**
+ * The full listing, {@code GET /users} without a cursor, is relayed by {@link UserStreamController} or
+ * {@link UserStreamWebController}, whichever matches the running web stack.
+ */
 @RestController
+@Validated
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
+    private static final int BULK_MAX_SIZE = 1000;
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@Valid @RequestBody UserRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@Valid @RequestBody UserRequestDto userDto) {
         log.info("Create user = {}", userDto);
         return userClient.addUser(userDto);
     }
 
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<Object>> addUsers(@RequestBody @NotEmpty @Size(max = BULK_MAX_SIZE)
+                                                 List<@Valid UserRequestDto> userDtos) {
+        log.info("Create {} users", userDtos.size());
+        return userClient.addUsers(userDtos);
+    }
+
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable long userId, @RequestBody UserRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable long userId, @RequestBody UserRequestDto userDto) {
         log.info("Update user {}, userId={}", userDto, userId);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable long userId) {
+    public Mono<Void> deleteUser(@PathVariable long userId) {
         log.info("Delete user with id={}", userId);
-        userClient.deleteUser(userId);
+        return userClient.deleteUser(userId);
     }
 
-    @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        log.info("Get all users");
-        return userClient.getUsers();
+    @GetMapping(params = "after")
+    public Mono<ResponseEntity<Object>> getUsers(@RequestParam long after,
+                                                 @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Get users after id={}, size={}", after, size);
+        return userClient.getUsers(after, size);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long userId) {
         log.info("Get user with id: {}", userId);
         return userClient.getUserById(userId);
     }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServletStreams;
+
+/**
+ * Relays the full user listing on the servlet stack, see {@link ServletStreams}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+@Slf4j
+public class UserStreamController {
+    private final UserClient userClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<StreamingResponseBody>> getUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.info("Get all users");
+        return userClient.streamUsers(accept).map(ServletStreams::write);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CachingServerExchangeTest {
+    private final AtomicReference<String> body = new AtomicReference<>();
+    private final Cache<String, ResponseEntity<Object>> cache = Caffeine.newBuilder().build();
+    private StubServerExchange transport;
+    private CachingServerExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        transport = new StubServerExchange(path -> Mono.fromSupplier(() -> ResponseEntity.ok(body.get())));
+        exchange = new CachingServerExchange(transport, cache);
+    }
+
+    @Test
+    void bookingMovingFromNextToLastIsNeverServedStaleTest() {
+        body.set("{\"id\":1,\"lastBooking\":null,\"nextBooking\":{\"id\":5}}");
+        assertEquals(body.get(), get("/items/1", 1L));
+
+        body.set("{\"id\":1,\"lastBooking\":{\"id\":5},\"nextBooking\":null}");
+        assertEquals(body.get(), get("/items/1", 1L));
+        assertEquals(body.get(), get("/items?from=0&size=10", 1L));
+        assertEquals(3, transport.callCount());
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    void requestReadsAreCachedPerUserTest() {
+        body.set("[]");
+        get("/requests/1", 1L);
+        get("/requests/1", 1L);
+        get("/requests/1", 2L);
+        assertEquals(2, transport.callCount());
+    }
+
+    @Test
+    void writesEvictRequestsExceptBookingsTest() {
+        body.set("[]");
+        get("/requests/1", 1L);
+        exchange.exchange(HttpMethod.POST, "/bookings", 2L, null, "{}").block();
+        get("/requests/1", 1L);
+        assertEquals(2, transport.callCount());
+
+        exchange.exchange(HttpMethod.POST, "/items", 2L, null, "{}").block();
+        get("/requests/1", 1L);
+        assertEquals(4, transport.callCount());
+    }
+
+    private Object get(String path, Long userId) {
+        ResponseEntity<Object> response = exchange.exchange(HttpMethod.GET, path, userId, null, null).block();
+        return response.getBody();
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CoalescingServerExchangeTest {
+    private final List<Sinks.One<ResponseEntity<Object>>> upstream = new CopyOnWriteArrayList<>();
+    private StubServerExchange transport;
+    private CoalescingServerExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        transport = new StubServerExchange(path -> {
+            Sinks.One<ResponseEntity<Object>> sink = Sinks.one();
+            upstream.add(sink);
+            return sink.asMono();
+        });
+        exchange = new CoalescingServerExchange(transport);
+    }
+
+    @Test
+    void identicalReadsShareOneCallTest() {
+        AtomicReference<Object> first = subscribe(get(1L));
+        AtomicReference<Object> second = subscribe(get(1L));
+        assertEquals(1, transport.callCount());
+
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("item"));
+        assertEquals("item", first.get());
+        assertEquals("item", second.get());
+
+        subscribe(get(1L));
+        assertEquals(2, transport.callCount());
+    }
+
+    @Test
+    void readsOfDifferentUsersAreNotMergedTest() {
+        AtomicReference<Object> owner = subscribe(get(1L));
+        AtomicReference<Object> booker = subscribe(get(2L));
+        assertEquals(2, transport.callCount());
+
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("owner"));
+        upstream.get(1).tryEmitValue(ResponseEntity.ok("booker"));
+        assertEquals("owner", owner.get());
+        assertEquals("booker", booker.get());
+    }
+
+    @Test
+    void failedCallDoesNotPoisonLaterReadsTest() {
+        AtomicReference<Object> first = subscribe(get(1L));
+        AtomicReference<Object> second = subscribe(get(1L));
+        upstream.get(0).tryEmitError(new IllegalStateException("server down"));
+        assertInstanceOf(IllegalStateException.class, first.get());
+        assertInstanceOf(IllegalStateException.class, second.get());
+
+        AtomicReference<Object> later = subscribe(get(1L));
+        assertEquals(2, transport.callCount());
+        upstream.get(1).tryEmitValue(ResponseEntity.ok("item"));
+        assertEquals("item", later.get());
+    }
+
+    @Test
+    void cancelledCallDoesNotPoisonLaterReadsTest() {
+        Disposable first = get(1L).subscribe();
+        first.dispose();
+
+        AtomicReference<Object> later = subscribe(get(1L));
+        assertEquals(1, transport.callCount());
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("item"));
+        assertEquals("item", later.get());
+
+        AtomicReference<Object> next = subscribe(get(1L));
+        assertEquals(2, transport.callCount());
+        assertNull(next.get());
+        upstream.get(1).tryEmitValue(ResponseEntity.ok("next"));
+        assertEquals("next", next.get());
+    }
+
+    @Test
+    void successfulWriteDetachesReadsInFlightTest() {
+        subscribe(get(1L));
+        transport.responses = path -> Mono.just(ResponseEntity.ok("saved"));
+        exchange.exchange(HttpMethod.PATCH, "/items/1", 1L, null, "{}").block();
+
+        subscribe(get(1L));
+        assertEquals(3, transport.callCount());
+    }
+
+    private Mono<ResponseEntity<Object>> get(Long userId) {
+        return exchange.exchange(HttpMethod.GET, "/items/1", userId, null, null);
+    }
+
+    /**
+     * Holds the body the read ends with, or its error.
+     */
+    private static AtomicReference<Object> subscribe(Mono<ResponseEntity<Object>> read) {
+        AtomicReference<Object> result = new AtomicReference<>();
+        read.subscribe(response -> result.set(response.getBody()), result::set);
+        return result;
+    }
+}
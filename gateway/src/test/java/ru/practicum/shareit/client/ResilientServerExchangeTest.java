@@ -0,0 +1,167 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResilientServerExchangeTest {
+    private final Queue<Mono<ResponseEntity<Object>>> responses = new ArrayDeque<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResilienceProperties properties = new ResilienceProperties();
+    private CircuitBreakerRegistry circuitBreakers;
+    private StubServerExchange transport;
+    private ResilientServerExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(50)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        transport = new StubServerExchange(path -> responses.remove());
+        exchange = new ResilientServerExchange(transport, circuitBreakers, bulkheads, meterRegistry, properties);
+    }
+
+    @Test
+    void serverErrorReachesCallerAndCountsAsFailureTest() {
+        respond(HttpStatus.INTERNAL_SERVER_ERROR);
+        ResponseEntity<Object> response = call(HttpMethod.POST);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("answer " + HttpStatus.INTERNAL_SERVER_ERROR, response.getBody());
+        assertEquals(1, breaker().getMetrics().getNumberOfFailedCalls());
+
+        respond(HttpStatus.NOT_FOUND);
+        assertEquals(HttpStatus.NOT_FOUND, call(HttpMethod.GET).getStatusCode());
+        assertEquals(1, breaker().getMetrics().getNumberOfSuccessfulCalls());
+        assertEquals(2, transport.callCount());
+    }
+
+    @Test
+    void breakerOpensRejectsAndClosesAgainTest() {
+        for (int i = 0; i < 10; i++) {
+            respond(i % 2 == 0 ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK);
+            call(HttpMethod.POST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker().getState());
+
+        ServerUnavailableException error = assertThrows(ServerUnavailableException.class,
+                () -> call(HttpMethod.POST));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatus());
+        assertEquals(Duration.ofMinutes(1), error.getRetryAfter());
+        assertEquals(10, transport.callCount());
+
+        breaker().transitionToHalfOpenState();
+        respond(HttpStatus.OK);
+        respond(HttpStatus.OK);
+        call(HttpMethod.POST);
+        call(HttpMethod.POST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker().getState());
+    }
+
+    @Test
+    void onlyGetsAreRetriedTest() {
+        respond(HttpStatus.SERVICE_UNAVAILABLE);
+        respond(HttpStatus.OK);
+        assertEquals(HttpStatus.OK, call(HttpMethod.GET).getStatusCode());
+        assertEquals(2, transport.callCount());
+
+        for (HttpMethod method : new HttpMethod[]{HttpMethod.POST, HttpMethod.PATCH, HttpMethod.DELETE}) {
+            respond(HttpStatus.SERVICE_UNAVAILABLE);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, call(method).getStatusCode());
+        }
+        assertEquals(5, transport.callCount());
+    }
+
+    @Test
+    void internalServerErrorIsNotRetriedTest() {
+        respond(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, call(HttpMethod.GET).getStatusCode());
+        assertEquals(1, transport.callCount());
+    }
+
+    @Test
+    void retriesStopWhenBudgetRunsDryTest() {
+        properties.setRetryBudgetReserve(1);
+        properties.setRetryBudgetRatio(0.5);
+        respond(HttpStatus.BAD_GATEWAY);
+        respond(HttpStatus.BAD_GATEWAY);
+        assertEquals(HttpStatus.BAD_GATEWAY, call(HttpMethod.GET).getStatusCode());
+        assertEquals(2, transport.callCount());
+
+        respond(HttpStatus.BAD_GATEWAY);
+        assertEquals(HttpStatus.BAD_GATEWAY, call(HttpMethod.GET).getStatusCode());
+        assertEquals(3, transport.callCount());
+
+        respond(HttpStatus.BAD_GATEWAY);
+        respond(HttpStatus.OK);
+        assertEquals(HttpStatus.OK, call(HttpMethod.GET).getStatusCode());
+        assertEquals(5, transport.callCount());
+        assertEquals(1.0, meterRegistry.counter("shareit.gateway.retries",
+                "client", "items", "outcome", "budget-exhausted").count());
+    }
+
+    @Test
+    void unreachableServerIsBadGatewayAfterRetryTest() {
+        responses.add(Mono.error(new ResourceAccessException("Connection refused")));
+        responses.add(Mono.error(new ResourceAccessException("Connection refused")));
+        ServerUnavailableException error = assertThrows(ServerUnavailableException.class,
+                () -> call(HttpMethod.GET));
+        assertEquals(HttpStatus.BAD_GATEWAY, error.getStatus());
+        assertEquals(2, transport.callCount());
+    }
+
+    @Test
+    void fullBulkheadShedsCallsTest() {
+        Sinks.One<ResponseEntity<Object>> pending = Sinks.one();
+        responses.add(pending.asMono());
+        exchange.exchange(HttpMethod.POST, "/items", 1L, null, null).subscribe();
+
+        ServerUnavailableException error = assertThrows(ServerUnavailableException.class,
+                () -> call(HttpMethod.POST));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatus());
+        assertEquals(1, transport.callCount());
+
+        pending.tryEmitValue(ResponseEntity.ok("item"));
+        respond(HttpStatus.OK);
+        assertEquals(HttpStatus.OK, call(HttpMethod.POST).getStatusCode());
+    }
+
+    private void respond(HttpStatus status) {
+        responses.add(Mono.just(ResponseEntity.status(status).body("answer " + status)));
+    }
+
+    private ResponseEntity<Object> call(HttpMethod method) {
+        return exchange.exchange(method, "/items/1", 1L, null, null).block();
+    }
+
+    private CircuitBreaker breaker() {
+        return circuitBreakers.circuitBreaker("items");
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetryBudgetTest {
+
+    @Test
+    void reserveIsSpentFirstTest() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void depositsAddUpToWholeRetriesTest() {
+        RetryBudget budget = new RetryBudget(0.25, 1);
+        assertTrue(budget.tryWithdraw());
+        for (int i = 0; i < 3; i++) {
+            budget.deposit();
+            assertFalse(budget.tryWithdraw());
+        }
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void balanceIsCappedByReserveTest() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
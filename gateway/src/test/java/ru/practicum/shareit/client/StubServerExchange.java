@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Transport for the decorator tests: answers each exchange with the given function and records the calls.
+ */
+class StubServerExchange implements ServerExchange {
+    final List<String> calls = new ArrayList<>();
+    Function<String, Mono<ResponseEntity<Object>>> responses;
+
+    StubServerExchange(Function<String, Mono<ResponseEntity<Object>>> responses) {
+        this.responses = responses;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                calls.add(method + " " + path + "#" + userId);
+            }
+            return responses.apply(path);
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Flux<DataBuffer> body, MediaType contentType,
+                                                         MediaType accept) {
+        return Mono.error(new UnsupportedOperationException());
+    }
+
+    synchronized int callCount() {
+        return calls.size();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.client.ServerExchange;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitFilterTest {
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(1);
+        limit.setRefillPerSecond(0.5);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setFamilies(Map.of("bookings", limit));
+        filter = new RateLimitFilter(new RateLimiter(properties, new SimpleMeterRegistry()), new ObjectMapper());
+    }
+
+    @Test
+    void requestOverLimitIsRejectedWithRetryAfterTest() throws Exception {
+        MockFilterChain passed = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, passed);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotNull(passed.getRequest());
+
+        MockFilterChain rejected = new MockFilterChain();
+        response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, rejected);
+        assertNull(rejected.getRequest());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("Rate limit exceeded for /bookings"));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bookings");
+        request.addHeader(ServerExchange.USER_ID_HEADER, "1");
+        return request;
+    }
+}
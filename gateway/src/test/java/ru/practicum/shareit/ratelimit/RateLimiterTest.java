@@ -0,0 +1,83 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(3);
+        limit.setRefillPerSecond(2);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setFamilies(Map.of("bookings", limit));
+        rateLimiter = new RateLimiter(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void burstUpToCapacityTest() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, acquire("1", "10.0.0.1"));
+        }
+        assertEquals(SECOND / 2, acquire("1", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.counter("shareit.gateway.throttled", "family", "bookings").count());
+    }
+
+    @Test
+    void tokensRefillOverTimeTest() {
+        for (int i = 0; i < 3; i++) {
+            acquire("1", "10.0.0.1");
+        }
+        clock.addAndGet(SECOND / 4);
+        assertEquals(SECOND / 4, acquire("1", "10.0.0.1"));
+        clock.addAndGet(SECOND / 4);
+        assertEquals(0, acquire("1", "10.0.0.1"));
+        assertEquals(SECOND / 2, acquire("1", "10.0.0.1"));
+
+        clock.addAndGet(10 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, acquire("1", "10.0.0.1"));
+        }
+        assertEquals(SECOND / 2, acquire("1", "10.0.0.1"));
+    }
+
+    @Test
+    void callersHaveSeparateBucketsTest() {
+        for (int i = 0; i < 3; i++) {
+            acquire("1", "10.0.0.1");
+        }
+        assertEquals(0, acquire("1", "10.0.0.2"));
+        assertEquals(0, acquire("2", "10.0.0.1"));
+        assertEquals(0, acquire(null, "10.0.0.1"));
+    }
+
+    @Test
+    void familiesWithoutLimitAreNotThrottledTest() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("/items/1", "1", "10.0.0.1"));
+        }
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSecondsTest() {
+        assertEquals(1, RateLimiter.retryAfterSeconds(1));
+        assertEquals(1, RateLimiter.retryAfterSeconds(SECOND));
+        assertEquals(2, RateLimiter.retryAfterSeconds(SECOND + 1));
+    }
+
+    private long acquire(String userId, String address) {
+        return rateLimiter.tryAcquire("/bookings/1", userId, address);
+    }
+}
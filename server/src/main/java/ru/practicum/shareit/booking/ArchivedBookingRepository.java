@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>,
+        ArchivedBookingRepositoryCustom {
+    String ARCHIVED_BOOKING_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, " +
+            "b.status, b.booker.id, b.booker.name, b.item.id, b.item.name) FROM ArchivedBooking AS b ";
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<ArchivedBooking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<ArchivedBooking> findAllByIdIn(Collection<Long> ids);
+
+    @Query(ARCHIVED_BOOKING_DTO + "WHERE b.booker.id = :bookerId")
+    List<BookingDto> findAllByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
+
+    @Query(ARCHIVED_BOOKING_DTO + "WHERE b.booker.id = :bookerId AND b.status = :status")
+    List<BookingDto> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") Status status,
+                                                Pageable pageable);
+
+    @Query(ARCHIVED_BOOKING_DTO + "WHERE b.item.owner.id = :ownerId")
+    List<BookingDto> findAllByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(ARCHIVED_BOOKING_DTO + "WHERE b.item.owner.id = :ownerId AND b.status = :status")
+    List<BookingDto> findAllByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") Status status,
+                                                   Pageable pageable);
+
+    boolean existsByBookerIdAndStatus(Long bookerId, Status status);
+
+    /**
+     * Skips bookings already in the archive, the same effect as ON CONFLICT DO NOTHING, which H2 lacks.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, item_id, booker_id, start_date, end_date, status) " +
+            "SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status FROM bookings AS b " +
+            "WHERE b.id IN (:ids) AND NOT EXISTS (SELECT 1 FROM bookings_archive AS a WHERE a.id = b.id)",
+            nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedBookingRepositoryCustom {
+    List<BookingDto> findAllAfter(Specification<ArchivedBooking> filter, BookingCursor after, int limit);
+
+    /**
+     * Returns the latest archived approved booking of every given item, at most one row per item.
+     */
+    List<BookingItemDto> findLastApproved(Collection<Long> itemIds);
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Status;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+
+public class ArchivedBookingRepositoryCustomImpl implements ArchivedBookingRepositoryCustom {
+    private static final String LAST_QUERY = "SELECT id, item_id, booker_id, start_date, end_date " +
+            "FROM (SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn " +
+            "FROM bookings_archive AS b WHERE b.item_id IN (:itemIds) AND b.status = :status) AS ranked " +
+            "WHERE rn = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findAllAfter(Specification<ArchivedBooking> filter, BookingCursor after, int limit) {
+        return BookingRepositoryCustomImpl.findAllAfter(entityManager, ArchivedBooking.class, filter, after, limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BookingItemDto> findLastApproved(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(LAST_QUERY)
+                .setParameter("itemIds", itemIds)
+                .setParameter("status", Status.APPROVED.name())
+                .getResultList();
+        return BookingRepositoryCustomImpl.toBookingItems(rows);
+    }
+}
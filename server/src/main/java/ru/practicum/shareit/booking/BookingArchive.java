@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Phase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings that ended longer than the retention period ago from the bookings table to
+ * bookings_archive, in batches that commit one by one, so the hot table holds recent bookings only.
+ * On a partitioned bookings table it also creates the partitions of the coming months and drops
+ * the ones archiving has emptied.
+ * Every archived booking ended before {@link #archivedBefore}, which lets listings read the archive
+ * only for pages that reach back that far.
+ * Every instance schedules the job, on PostgreSQL a session advisory lock lets only one of them run it
+ * at a time, the others skip that run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingArchive {
+    static final int BATCH_SIZE = 1000;
+    private static final int MONTHS_AHEAD = 3;
+    static final long LOCK_KEY = BookingArchive.class.getName().hashCode();
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalDateTime archivedBefore(LocalDateTime now) {
+        return now.minus(properties.getRetention());
+    }
+
+    @Scheduled(cron = "${shareit.booking-archive.cron}")
+    public void archive() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean locking = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            if (locking && !advisoryLock(connection, "pg_try_advisory_lock")) {
+                log.info("Архивация бронирований уже выполняется другим экземпляром");
+                return null;
+            }
+            try {
+                archiveBookings();
+            } finally {
+                if (locking) {
+                    advisoryLock(connection, "pg_advisory_unlock");
+                }
+            }
+            return null;
+        });
+    }
+
+    private void archiveBookings() {
+        LocalDateTime before = archivedBefore(LocalDateTime.now());
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(before));
+            archived += moved;
+        } while (moved == BATCH_SIZE);
+        log.info("Перенесено в архив бронирований: {}", archived);
+        if (properties.isPartitioned()) {
+            maintainPartitions(before);
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private int moveBatch(LocalDateTime before) {
+        List<Long> ids = bookingRepository.findIdsByPhaseAndEndBefore(Phase.PAST, before,
+                PageRequest.ofSize(BATCH_SIZE));
+        if (!ids.isEmpty()) {
+            archivedBookingRepository.copyFromBookings(ids);
+            bookingRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+
+    private void maintainPartitions(LocalDateTime before) {
+        LocalDateTime month = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        int created = 0;
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT create_bookings_partition(?)",
+                    Boolean.class, Timestamp.valueOf(month.plusMonths(i))))) {
+                created++;
+            }
+        }
+        Integer dropped = jdbcTemplate.queryForObject("SELECT drop_empty_bookings_partitions(?)", Integer.class,
+                Timestamp.valueOf(before));
+        log.info("Партиций бронирований создано: {}, удалено: {}", created, dropped);
+    }
+}
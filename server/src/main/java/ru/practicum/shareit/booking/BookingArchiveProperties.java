@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How long bookings stay in the bookings table after they end, see {@link BookingArchive}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking-archive")
+public class BookingArchiveProperties {
+    /**
+     * Bookings that ended longer ago than this are archived. Listings skip the archive for pages that stay
+     * within this period, so after lengthening it, bookings archived under the shorter one can be missing
+     * from such pages until they are older than the new period.
+     */
+    private Duration retention = Duration.ofDays(365);
+    /**
+     * Whether the bookings table is range partitioned by month, as on PostgreSQL, the archive job then
+     * keeps the partitions.
+     */
+    private boolean partitioned;
+}
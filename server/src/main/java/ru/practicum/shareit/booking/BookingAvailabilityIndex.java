@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the time slots occupied by live (waiting or approved) bookings of each item.
+ * An item's schedule is loaded from the database on the first check and then kept in sync by
+ * {@link BookingServiceImpl}, so conflict checks on the booking hot path do not query the database.
+ * Segments that have ended are dropped as the schedule is used, so it holds only the item's upcoming bookings.
+ * The index assumes a single server instance: bookings made through another instance are not seen
+ * until the item's schedule is reloaded, which happens only after a local rejection or rollback.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemSchedule> schedules = new ConcurrentHashMap<>();
+
+    public boolean isBooked(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemSchedule schedule = schedules.get(itemId);
+        if (schedule == null) {
+            // loaded outside the map, a query must not run while holding one of its bins
+            ItemSchedule loaded = loadSchedule(itemId);
+            schedule = schedules.putIfAbsent(itemId, loaded);
+            if (schedule == null) {
+                schedule = loaded;
+            }
+        }
+        return schedule.overlaps(start, end, LocalDateTime.now());
+    }
+
+    public void register(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        schedules.computeIfPresent(itemId, (id, schedule) -> {
+            schedule.add(booking.getStart(), booking.getEnd(), LocalDateTime.now());
+            return schedule;
+        });
+        evictAfterCompletion(itemId, true);
+    }
+
+    public void unregister(Booking booking) {
+        evictAfterCompletion(booking.getItem().getId(), false);
+    }
+
+    private void evictAfterCompletion(Long itemId, boolean onRollbackOnly) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (!onRollbackOnly) {
+                schedules.remove(itemId);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (!onRollbackOnly || status != STATUS_COMMITTED) {
+                    schedules.remove(itemId);
+                }
+            }
+        });
+    }
+
+    private ItemSchedule loadSchedule(Long itemId) {
+        List<BookingShortDto> bookings = bookingRepository.findAllIntervalsByItemIdAndStatusNot(itemId,
+                Status.REJECTED);
+        LocalDateTime now = LocalDateTime.now();
+        ItemSchedule schedule = new ItemSchedule();
+        bookings.forEach(b -> schedule.add(b.getStart(), b.getEnd(), now));
+        log.debug("Загружено расписание предмета с id = {}: {} бронирований", itemId, bookings.size());
+        return schedule;
+    }
+
+    /**
+     * Disjoint, start-ordered segments covering the union of an item's booked [start, end) intervals.
+     */
+    static class ItemSchedule {
+        private final NavigableMap<LocalDateTime, LocalDateTime> segments = new TreeMap<>();
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+            prune(now);
+            Map.Entry<LocalDateTime, LocalDateTime> previous = segments.lowerEntry(end);
+            return previous != null && previous.getValue().isAfter(start);
+        }
+
+        synchronized void add(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+            prune(now);
+            if (!start.isBefore(end) || end.isBefore(now)) {
+                return;
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> previous = segments.floorEntry(start);
+            if (previous != null && !previous.getValue().isBefore(start)) {
+                start = previous.getKey();
+                end = max(end, previous.getValue());
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> next = segments.ceilingEntry(start);
+            while (next != null && !next.getKey().isAfter(end)) {
+                end = max(end, next.getValue());
+                segments.remove(next.getKey());
+                next = segments.higherEntry(next.getKey());
+            }
+            segments.put(start, end);
+        }
+
+        synchronized int size() {
+            return segments.size();
+        }
+
+        /**
+         * Segments are disjoint and ordered, so their ends are ordered too and ended ones come first.
+         */
+        private void prune(LocalDateTime now) {
+            Map.Entry<LocalDateTime, LocalDateTime> first = segments.firstEntry();
+            while (first != null && first.getValue().isBefore(now)) {
+                segments.pollFirstEntry();
+                first = segments.firstEntry();
+            }
+        }
+
+        private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+            return first.isAfter(second) ? first : second;
+        }
+    }
+}
@@ -3,11 +3,13 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import java.util.List;
 
+import static ru.practicum.shareit.util.Pagination.getLimitOrThrow;
 import static ru.practicum.shareit.util.Pagination.getPageOrThrow;
 
 @RestController
@@ -30,11 +32,27 @@ public class BookingController {
         return bookingService.getBooking(id, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    public List<BookingDto> getBookings(@RequestHeader(ITEM_OWNER_ID_HEADER) Long id,
+                                        @RequestParam List<Long> ids) {
+        return bookingService.getBookings(id, ids);
+    }
+
+    @PostMapping("/batch-get")
+    public List<BookingDto> batchGetBookings(@RequestHeader(ITEM_OWNER_ID_HEADER) Long id,
+                                             @RequestBody List<Long> ids) {
+        return bookingService.getBookings(id, ids);
+    }
+
     @GetMapping()
     public List<BookingDto> getAllBookingByState(@RequestHeader("X-Sharer-User-Id") Long id,
                                                  @RequestParam(defaultValue = "ALL") String state,
                                                  @RequestParam(defaultValue = "0") Integer from,
-                                                 @RequestParam(defaultValue = "10") Integer size) {
+                                                 @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String after) {
+        if (after != null) {
+            return bookingService.getAllBookingByState(id, state, BookingCursor.parse(after), getLimitOrThrow(size));
+        }
         return bookingService.getAllBookingByState(id, state, getPageOrThrow(from, size));
     }
 
@@ -42,7 +60,12 @@ public class BookingController {
     public List<BookingDto> getAllOwnersBookingByState(@RequestHeader("X-Sharer-User-Id") Long id,
                                                        @RequestParam(defaultValue = "ALL") String state,
                                                        @RequestParam(defaultValue = "0") Integer from,
-                                                       @RequestParam(defaultValue = "10") Integer size) {
+                                                       @RequestParam(defaultValue = "10") Integer size,
+                                                       @RequestParam(required = false) String after) {
+        if (after != null) {
+            return bookingService.getAllOwnersBookingByState(id, state, BookingCursor.parse(after),
+                    getLimitOrThrow(size));
+        }
         return bookingService.getAllOwnersBookingByState(id, state, getPageOrThrow(from, size));
     }
 
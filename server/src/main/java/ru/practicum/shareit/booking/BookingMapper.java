@@ -3,7 +3,9 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
 
 public class BookingMapper {
 
@@ -28,6 +30,21 @@ public class BookingMapper {
                 .build();
     }
 
+    /**
+     * A detached copy for the read paths shared with live bookings, it is never saved.
+     */
+    public static Booking archivedToBooking(ArchivedBooking archived) {
+        return Booking.builder()
+                .id(archived.getId())
+                .start(archived.getStart())
+                .end(archived.getEnd())
+                .item(archived.getItem())
+                .booker(archived.getBooker())
+                .status(archived.getStatus())
+                .phase(Phase.PAST)
+                .build();
+    }
+
     public static Booking bookToShortDto(BookingShortDto bookingShortDto) {
         return Booking.builder()
                 .id(bookingShortDto.getId())
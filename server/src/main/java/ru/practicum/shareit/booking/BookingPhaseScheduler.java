@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Phase;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings whose dates have been reached to their next {@link Phase}: started ones from FUTURE to
+ * CURRENT, ended ones to PAST. Both updates touch only the bookings that crossed a boundary since the
+ * last run, found through the phase indexes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPhaseScheduler {
+    private final BookingRepository bookingRepository;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phases.interval}",
+            initialDelayString = "${shareit.booking-phases.interval}")
+    @Transactional
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        int ended = bookingRepository.updatePhaseByEndBefore(List.of(Phase.FUTURE, Phase.CURRENT), Phase.PAST, now);
+        int started = bookingRepository.updatePhaseByStartBefore(List.of(Phase.FUTURE), Phase.CURRENT, now);
+        if (ended > 0 || started > 0) {
+            log.info("Бронирований завершилось: {}, началось: {}", ended, started);
+        }
+    }
+}
@@ -1,53 +1,100 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime dateTime,
-                                                             LocalDateTime dateTime1, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
-
-    Boolean existsByBookerIdAndEndBeforeAndStatus(Long bookerId, LocalDateTime localDateTime, Status status);
-
-    List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long bookerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime dateTime,
-                                                                LocalDateTime anotherDateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long bookerId, LocalDateTime dateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStatus(Long bookerId, Status status, Pageable pageable);
-
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(Long itemId, LocalDateTime localDate,
-                                                                               Status status);
-
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime localDate,
-                                                                             Status status);
-
-    Optional<Booking> findFirstByItemIdInAndStartLessThanEqualAndStatus(List<Long> idItems, LocalDateTime now,
-                                                                        Status approved, Sort sort);
-
-    Optional<Booking> findFirstByItemIdInAndStartAfterAndStatus(List<Long> idItems, LocalDateTime now,
-                                                                Status approved, Sort sort);
-
-    List<Booking> findAllByItemIdAndStartBeforeAndEndAfter(
-            Long itemId, LocalDateTime start, LocalDateTime end, Sort sort);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    String BOOKING_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, " +
+            "b.booker.id, b.booker.name, b.item.id, b.item.name) FROM Booking AS b ";
+    String FUTURE_PHASE = "b.phase = ru.practicum.shareit.booking.model.Phase.FUTURE ";
+    String NOT_PAST_PHASE = "b.phase IN (ru.practicum.shareit.booking.model.Phase.FUTURE, " +
+            "ru.practicum.shareit.booking.model.Phase.CURRENT) ";
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    @Query(BOOKING_DTO + "WHERE b.booker.id = :bookerId")
+    List<BookingDto> findAllByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.booker.id = :bookerId AND " + NOT_PAST_PHASE +
+            "AND b.start < :now AND b.end > :now")
+    List<BookingDto> findAllByBookerIdAndStartBeforeAndEndAfter(@Param("bookerId") Long bookerId,
+                                                                @Param("now") LocalDateTime now,
+                                                                Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.booker.id = :bookerId AND b.end < :now")
+    List<BookingDto> findAllByBookerIdAndEndBefore(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.booker.id = :bookerId AND " + FUTURE_PHASE + "AND b.start > :now")
+    List<BookingDto> findAllByBookerIdAndStartAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.booker.id = :bookerId AND b.status = :status")
+    List<BookingDto> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") Status status,
+                                                Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.item.owner.id = :ownerId")
+    List<BookingDto> findAllByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.item.owner.id = :ownerId AND b.end < :now")
+    List<BookingDto> findAllByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                      Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.item.owner.id = :ownerId AND " + NOT_PAST_PHASE +
+            "AND b.start < :now AND b.end > :now")
+    List<BookingDto> findAllByItemOwnerIdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId,
+                                                                   @Param("now") LocalDateTime now,
+                                                                   Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.item.owner.id = :ownerId AND " + FUTURE_PHASE + "AND b.start > :now")
+    List<BookingDto> findAllByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                       Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.item.owner.id = :ownerId AND b.status = :status")
+    List<BookingDto> findAllByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") Status status,
+                                                   Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Booking AS b SET b.phase = :phase WHERE b.phase IN :phases AND b.end < :now")
+    int updatePhaseByEndBefore(@Param("phases") Collection<Phase> phases, @Param("phase") Phase phase,
+                               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking AS b SET b.phase = :phase WHERE b.phase IN :phases AND b.start < :now")
+    int updatePhaseByStartBefore(@Param("phases") Collection<Phase> phases, @Param("phase") Phase phase,
+                                 @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id FROM Booking AS b WHERE b.phase = :phase AND b.end < :end ORDER BY b.end")
+    List<Long> findIdsByPhaseAndEndBefore(@Param("phase") Phase phase, @Param("end") LocalDateTime end,
+                                          Pageable pageable);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN TRUE ELSE FALSE END FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId AND b.end < :end AND b.status = :status")
+    Boolean existsByBookerIdAndEndBeforeAndStatus(@Param("bookerId") Long bookerId,
+                                                  @Param("end") LocalDateTime localDateTime,
+                                                  @Param("status") Status status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.start, b.end, b.item.id) " +
+            "FROM Booking AS b WHERE b.item.id = :itemId AND b.status <> :status")
+    List<BookingShortDto> findAllIntervalsByItemIdAndStatusNot(@Param("itemId") Long itemId,
+                                                               @Param("status") Status status);
 
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<BookingDto> findAllAfter(Specification<Booking> filter, BookingCursor after, int limit);
+
+    /**
+     * Returns the last (started at or before {@code now}) and the next approved booking of every given item,
+     * at most two rows per item.
+     */
+    List<BookingItemDto> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now);
+}
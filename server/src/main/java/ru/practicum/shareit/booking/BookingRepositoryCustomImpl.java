@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String LAST_AND_NEXT_QUERY = "SELECT id, item_id, booker_id, start_date, end_date " +
+            "FROM (SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date > :now " +
+            "ORDER BY CASE WHEN b.start_date > :now THEN b.start_date END, b.start_date DESC, b.id DESC) AS rn " +
+            "FROM bookings AS b WHERE b.item_id IN (:itemIds) AND b.status = :status) AS ranked " +
+            "WHERE rn = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findAllAfter(Specification<Booking> filter, BookingCursor after, int limit) {
+        return findAllAfter(entityManager, Booking.class, filter, after, limit);
+    }
+
+    /**
+     * Shared with {@link ArchivedBookingRepositoryCustomImpl}, both entities name their fields alike.
+     */
+    static <T> List<BookingDto> findAllAfter(EntityManager entityManager, Class<T> type, Specification<T> filter,
+                                             BookingCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<T> root = query.from(type);
+        Join<T, User> booker = root.join("booker");
+        Join<T, Item> item = root.join("item");
+        query.select(cb.construct(BookingDto.class, root.get("id"), root.get("start"), root.get("end"),
+                root.get("status"), booker.get("id"), booker.get("name"), item.get("id"), item.get("name")));
+
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (after != null) {
+            Predicate seek = cb.or(cb.lessThan(root.get("start"), after.getStart()),
+                    cb.and(cb.equal(root.get("start"), after.getStart()),
+                            cb.lessThan(root.get("id"), after.getId())));
+            predicate = predicate == null ? seek : cb.and(predicate, seek);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("start")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BookingItemDto> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(LAST_AND_NEXT_QUERY)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .setParameter("status", Status.APPROVED.name())
+                .getResultList();
+        return toBookingItems(rows);
+    }
+
+    static List<BookingItemDto> toBookingItems(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> BookingItemDto.builder()
+                        .id(((Number) row[0]).longValue())
+                        .itemId(((Number) row[1]).longValue())
+                        .bookerId(((Number) row[2]).longValue())
+                        .start(((Timestamp) row[3]).toLocalDateTime())
+                        .end(((Timestamp) row[4]).toLocalDateTime())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
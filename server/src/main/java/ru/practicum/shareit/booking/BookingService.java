@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
@@ -11,9 +12,18 @@ public interface BookingService {
 
     BookingDto getBooking(Long id, Long bookingId);
 
+    /**
+     * Same as {@link #getBooking} for each id, read in one query and returned in the order of the ids.
+     */
+    List<BookingDto> getBookings(Long id, List<Long> bookingIds);
+
     List<BookingDto> getAllBookingByState(Long id, String state, Pageable page);
 
+    List<BookingDto> getAllBookingByState(Long id, String state, BookingCursor after, int size);
+
     BookingDto approveBooking(Long id, Long bookingId, Boolean approved);
 
     List<BookingDto> getAllOwnersBookingByState(Long id, String state, Pageable page);
+
+    List<BookingDto> getAllOwnersBookingByState(Long id, String state, BookingCursor after, int size);
 }
@@ -2,11 +2,13 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -14,17 +16,34 @@ import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.util.Comparator.comparing;
 import static ru.practicum.shareit.booking.BookingMapper.bookToDto;
 import static ru.practicum.shareit.booking.BookingMapper.bookToShortDto;
+import static ru.practicum.shareit.booking.BookingSpecifications.archivedInState;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasArchivedBooker;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasArchivedItemOwner;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasBooker;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasItemOwner;
+import static ru.practicum.shareit.booking.BookingSpecifications.inState;
 import static ru.practicum.shareit.booking.model.State.validateState;
 
 
@@ -33,16 +52,32 @@ import static ru.practicum.shareit.booking.model.State.validateState;
 @Slf4j
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    /**
+     * The same limit as in the gateway, so that a direct call cannot send an unbounded IN list to both tables.
+     */
+    static final int MAX_BOOKING_IDS = 100;
+    /**
+     * An offset page that reaches the archive merges both sources from the first row, so it may end no further
+     * than this. Deeper pages are read with the {@code after} cursor, which seeks in both tables.
+     */
+    static final int MAX_ARCHIVE_MERGE_ROWS = 1000;
+    private static final Comparator<BookingDto> NEWEST_FIRST =
+            comparing(BookingDto::getStart).thenComparing(BookingDto::getId).reversed();
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchive bookingArchive;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-    private final Sort sort = Sort.by(Sort.Direction.DESC, "start");
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemBookingLocks itemBookingLocks;
+    private final Sort sort = Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id"));
 
     @Override
     public BookingDto addBooking(Long userId, BookingShortDto bookingShortDto) {
         Item item = itemRepository.findById(bookingShortDto.getItemId()).orElseThrow(() ->
                 new NotFoundException("Предмет с id= " + userId + " не найден"));
-        userRepository.findById(userId)
+        User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Невозможно создать бронирование - " +
                         "Не найден пользователь с id " + userId));
         if (bookingShortDto.getStart().isEqual(bookingShortDto.getEnd()) ||
@@ -59,71 +94,114 @@ public class BookingServiceImpl implements BookingService {
         LocalDateTime bookingStart = bookingShortDto.getStart();
         LocalDateTime bookingEnd = bookingShortDto.getEnd();
 
-        List<Booking> conflictingBookings = bookingRepository.findAllByItemIdAndStartBeforeAndEndAfter(
-                bookingShortDto.getItemId(), bookingEnd, bookingStart, Sort.by(Sort.Direction.ASC, "start"));
-
-        if (!conflictingBookings.isEmpty()) {
-            throw new NotAvailableException("Предмет с id= " + bookingShortDto.getItemId() +
-                    " уже забронирован на указанные даты");
+        itemBookingLocks.lockUntilCompletion(item.getId());
+        if (availabilityIndex.isBooked(item.getId(), bookingStart, bookingEnd)) {
+            throw alreadyBooked(item.getId());
         }
 
         Booking booking = bookToShortDto(bookingShortDto);
-        booking.setBooker(userRepository.findById(userId).orElseThrow(()
-                -> new NotFoundException("Пользователь с id= " + userId + " не найден")));
+        booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(Status.WAITING);
 
-        return bookToDto(bookingRepository.save(booking));
+        Booking savedBooking;
+        try {
+            // flushed here, an overlap that only the database sees must surface as the same conflict
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw e;
+            }
+            throw alreadyBooked(item.getId());
+        }
+        availabilityIndex.register(savedBooking);
+        return bookToDto(savedBooking);
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingDto getBooking(Long id, Long bookingId) {
-        Booking booking = validateBooking(bookingId);
-        if (!booking.getBooker().getId().equals(id) && !booking.getItem().getOwner().getId().equals(id)) {
-            throw new NotFoundException("Пользователь с id= " + id +
-                    " не является собственником или арендатором предмета");
-        }
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId).map(BookingMapper::archivedToBooking))
+                .orElseThrow(() -> new NotFoundException("Номер бронирования с id= " + bookingId + " не найден"));
+        validateParticipant(id, booking);
         return bookToDto(booking);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getBookings(Long id, List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        if (bookingIds.size() > MAX_BOOKING_IDS) {
+            throw new ValidationException("За один запрос можно получить не больше " + MAX_BOOKING_IDS
+                    + " бронирований");
+        }
+        Set<Long> ids = new HashSet<>(bookingIds);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        if (bookings.size() < ids.size()) {
+            ids.removeAll(bookings.keySet());
+            archivedBookingRepository.findAllByIdIn(ids).forEach(archived ->
+                    bookings.put(archived.getId(), BookingMapper.archivedToBooking(archived)));
+        }
+        List<BookingDto> bookingList = new ArrayList<>(bookingIds.size());
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                throw new NotFoundException("Номер бронирования с id= " + bookingId + " не найден");
+            }
+            validateParticipant(id, booking);
+            bookingList.add(bookToDto(booking));
+        }
+        log.info("Получены сведения о бронированиях с id = {}", bookingIds);
+        return bookingList;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<BookingDto> getAllBookingByState(Long id, String stateString, Pageable page) {
         validateUser(id);
-        List<Booking> bookingList;
+        List<BookingDto> bookingList;
         LocalDateTime time = LocalDateTime.now();
         Pageable pageableWithSort = PageRequest.of(page.getPageNumber(), page.getPageSize(), sort);
 
         State state = validateState(stateString);
         switch (state) {
             case ALL:
-                bookingList = bookingRepository.findAllByBookerId(id, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, time,
+                        p -> bookingRepository.findAllByBookerId(id, p),
+                        p -> archivedBookingRepository.findAllByBookerId(id, p));
                 break;
             case CURRENT:
-                bookingList = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(id,
-                        time, time, pageableWithSort);
+                bookingList = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(id, time,
+                        pageableWithSort);
                 break;
             case PAST:
-                bookingList = bookingRepository.findAllByBookerIdAndEndBefore(id, time, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, time,
+                        p -> bookingRepository.findAllByBookerIdAndEndBefore(id, time, p),
+                        p -> archivedBookingRepository.findAllByBookerId(id, p));
                 break;
             case FUTURE:
                 bookingList = bookingRepository.findAllByBookerIdAndStartAfter(id, time, pageableWithSort);
                 break;
             case WAITING:
-                bookingList = bookingRepository.findAllByBookerIdAndStatus(id, Status.WAITING, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, time,
+                        p -> bookingRepository.findAllByBookerIdAndStatus(id, Status.WAITING, p),
+                        p -> archivedBookingRepository.findAllByBookerIdAndStatus(id, Status.WAITING, p));
                 break;
             case REJECTED:
-                bookingList = bookingRepository.findAllByBookerIdAndStatus(id, Status.REJECTED, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, time,
+                        p -> bookingRepository.findAllByBookerIdAndStatus(id, Status.REJECTED, p),
+                        p -> archivedBookingRepository.findAllByBookerIdAndStatus(id, Status.REJECTED, p));
                 break;
             default:
                 bookingList = Collections.emptyList();
         }
 
         log.info("Получены следующие сведения о состоянии бронирования  = {}", state);
-        return bookingList.stream()
-                .map(BookingMapper::bookToDto)
-                .collect(Collectors.toList());
+        return bookingList;
     }
 
     @Transactional(readOnly = true)
@@ -131,39 +209,79 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> getAllOwnersBookingByState(Long id, String stateString, Pageable page) {
         validateUser(id);
 
-        List<Booking> bookingList;
+        List<BookingDto> bookingList;
         LocalDateTime now = LocalDateTime.now();
         Pageable pageableWithSort = PageRequest.of(page.getPageNumber(), page.getPageSize(), sort);
 
         State state = validateState(stateString);
         switch (state) {
             case ALL:
-                bookingList = bookingRepository.findAllByItemOwnerId(id, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, now,
+                        p -> bookingRepository.findAllByItemOwnerId(id, p),
+                        p -> archivedBookingRepository.findAllByItemOwnerId(id, p));
                 break;
             case PAST:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndEndBefore(id, now, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, now,
+                        p -> bookingRepository.findAllByItemOwnerIdAndEndBefore(id, now, p),
+                        p -> archivedBookingRepository.findAllByItemOwnerId(id, p));
                 break;
             case CURRENT:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(id,
-                        now, now, pageableWithSort);
+                bookingList = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(id, now,
+                        pageableWithSort);
                 break;
             case FUTURE:
                 bookingList = bookingRepository.findAllByItemOwnerIdAndStartAfter(id, now, pageableWithSort);
                 break;
             case WAITING:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndStatus(id, Status.WAITING, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, now,
+                        p -> bookingRepository.findAllByItemOwnerIdAndStatus(id, Status.WAITING, p),
+                        p -> archivedBookingRepository.findAllByItemOwnerIdAndStatus(id, Status.WAITING, p));
                 break;
             case REJECTED:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndStatus(id, Status.REJECTED, pageableWithSort);
+                bookingList = withArchive(pageableWithSort, now,
+                        p -> bookingRepository.findAllByItemOwnerIdAndStatus(id, Status.REJECTED, p),
+                        p -> archivedBookingRepository.findAllByItemOwnerIdAndStatus(id, Status.REJECTED, p));
                 break;
             default:
                 bookingList = Collections.emptyList();
         }
 
         log.info("Получены сведения о владельце предмета и состоянии бронирования  = {}", state);
-        return bookingList.stream()
-                .map(BookingMapper::bookToDto)
-                .collect(Collectors.toList());
+        return bookingList;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getAllBookingByState(Long id, String stateString, BookingCursor after, int size) {
+        validateUser(id);
+        State state = validateState(stateString);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookingList = bookingRepository.findAllAfter(hasBooker(id).and(inState(state, now)), after,
+                size);
+        if (spansArchive(state) && reachesArchive(bookingList, size, now)) {
+            bookingList = merge(bookingList, archivedBookingRepository.findAllAfter(
+                    hasArchivedBooker(id).and(archivedInState(state)), after, size), 0, size);
+        }
+
+        log.info("Получены сведения о состоянии бронирования  = {} после {}", state, after);
+        return bookingList;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getAllOwnersBookingByState(Long id, String stateString, BookingCursor after, int size) {
+        validateUser(id);
+        State state = validateState(stateString);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookingList = bookingRepository.findAllAfter(hasItemOwner(id).and(inState(state, now)),
+                after, size);
+        if (spansArchive(state) && reachesArchive(bookingList, size, now)) {
+            bookingList = merge(bookingList, archivedBookingRepository.findAllAfter(
+                    hasArchivedItemOwner(id).and(archivedInState(state)), after, size), 0, size);
+        }
+
+        log.info("Получены сведения о владельце предмета и состоянии бронирования  = {} после {}", state, after);
+        return bookingList;
     }
 
     @Override
@@ -183,17 +301,88 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(Status.APPROVED);
         } else {
             booking.setStatus(Status.REJECTED);
+            availabilityIndex.unregister(booking);
         }
         bookingRepository.save(booking);
         log.info("Получено подтверждение бронирования предмета с id  = {}", bookingId);
         return bookToDto(booking);
     }
 
+    /**
+     * Reads a page of live bookings and, when it may reach archived ones, the same listing over the
+     * archive too. Both are merged in the listing order from the first row, since how many archived
+     * bookings precede the page is unknown, which is why the merge is limited to {@link #MAX_ARCHIVE_MERGE_ROWS}.
+     */
+    private List<BookingDto> withArchive(Pageable page, LocalDateTime now,
+                                         Function<Pageable, List<BookingDto>> live,
+                                         Function<Pageable, List<BookingDto>> archived) {
+        List<BookingDto> bookings = live.apply(page);
+        if (!reachesArchive(bookings, page.getPageSize(), now)) {
+            return bookings;
+        }
+        long rows = page.getOffset() + page.getPageSize();
+        if (rows > MAX_ARCHIVE_MERGE_ROWS) {
+            if (archived.apply(PageRequest.of(0, 1, page.getSort())).isEmpty()) {
+                return bookings;
+            }
+            throw new ValidationException("Страница с from = " + page.getOffset() + " заходит в архив бронирований, "
+                    + "дальше " + MAX_ARCHIVE_MERGE_ROWS + " строк листайте с параметром after");
+        }
+        Pageable head = PageRequest.of(0, (int) rows, page.getSort());
+        List<BookingDto> liveHead = page.getOffset() == 0 ? bookings : live.apply(head);
+        return merge(liveHead, archived.apply(head), page.getOffset(), page.getPageSize());
+    }
+
+    /**
+     * Archived bookings ended before {@link BookingArchive#archivedBefore}, so they all sort after a full page
+     * whose last booking starts later than that.
+     */
+    private boolean reachesArchive(List<BookingDto> bookings, int size, LocalDateTime now) {
+        return bookings.size() < size
+                || bookings.get(size - 1).getStart().isBefore(bookingArchive.archivedBefore(now));
+    }
+
+    private static boolean spansArchive(State state) {
+        return state != State.CURRENT && state != State.FUTURE;
+    }
+
+    /**
+     * A booking archived between the two reads can show up in both of them.
+     */
+    private static List<BookingDto> merge(List<BookingDto> live, List<BookingDto> archived, long skip, int limit) {
+        Set<Long> seen = new HashSet<>();
+        return Stream.concat(live.stream(), archived.stream())
+                .filter(booking -> seen.add(booking.getId()))
+                .sorted(NEWEST_FIRST)
+                .skip(skip)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static NotAvailableException alreadyBooked(Long itemId) {
+        return new NotAvailableException("Предмет с id= " + itemId + " уже забронирован на указанные даты");
+    }
+
+    /**
+     * On PostgreSQL the exclusion constraint of booking_slots rejects overlapping bookings of an item.
+     */
+    private static boolean isOverlap(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState());
+    }
+
     private Booking validateBooking(Long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NotFoundException("Номер бронирования с id= " + bookingId + " не найден"));
     }
 
+    private void validateParticipant(Long id, Booking booking) {
+        if (!booking.getBooker().getId().equals(id) && !booking.getItem().getOwner().getId().equals(id)) {
+            throw new NotFoundException("Пользователь с id= " + id +
+                    " не является собственником или арендатором предмета");
+        }
+    }
+
     private void validateUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new NotFoundException("Пользователь с id= " + id + " не найден");
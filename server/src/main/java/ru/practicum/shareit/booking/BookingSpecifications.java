@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * CURRENT and FUTURE narrow by the stored {@link Phase} first, which skips the booking history, and then
+ * compare dates, so bookings the scheduler has not moved yet are still reported correctly. PAST keeps
+ * the date comparison alone: a booking that ended since the last run is still in an earlier phase, and
+ * newest first the past bookings come right after the few current and future ones anyway.
+ */
+public class BookingSpecifications {
+
+    public static Specification<Booking> hasBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> hasItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return (root, query, cb) -> cb.and(root.get("phase").in(Phase.FUTURE, Phase.CURRENT),
+                        cb.lessThan(root.get("start"), now), cb.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.and(cb.equal(root.get("phase"), Phase.FUTURE),
+                        cb.greaterThan(root.get("start"), now));
+            case WAITING:
+                return (root, query, cb) -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED:
+                return (root, query, cb) -> cb.equal(root.get("status"), Status.REJECTED);
+            default:
+                return (root, query, cb) -> cb.conjunction();
+        }
+    }
+
+    public static Specification<ArchivedBooking> hasArchivedBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<ArchivedBooking> hasArchivedItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    /**
+     * Every archived booking is past, only the status states narrow the archive down.
+     */
+    public static Specification<ArchivedBooking> archivedInState(State state) {
+        switch (state) {
+            case CURRENT:
+            case FUTURE:
+                return (root, query, cb) -> cb.disjunction();
+            case WAITING:
+                return (root, query, cb) -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED:
+                return (root, query, cb) -> cb.equal(root.get("status"), Status.REJECTED);
+            default:
+                return (root, query, cb) -> cb.conjunction();
+        }
+    }
+}
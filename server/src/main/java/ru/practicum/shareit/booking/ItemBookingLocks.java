@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-item locks that serialize booking admission for the same item only.
+ * A lock is held until the surrounding transaction completes, so the conflict check
+ * and the insert of the new booking become atomic for concurrent requests.
+ * The locks only cover one server instance. On PostgreSQL an exclusion constraint (migration V8)
+ * rejects overlapping bookings made through different instances as well.
+ */
+@Component
+public class ItemBookingLocks {
+    private static final int STRIPES = 256;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public ItemBookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка предмета требует активной транзакции");
+        }
+        ReentrantLock lock = locks[stripe(itemId)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private static int stripe(Long itemId) {
+        int hash = itemId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
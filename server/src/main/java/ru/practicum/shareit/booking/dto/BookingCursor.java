@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+    private final LocalDateTime start;
+    private final Long id;
+
+    public static BookingCursor parse(String token) {
+        int separator = token == null ? -1 : token.lastIndexOf(',');
+        if (separator < 0) {
+            throw new NotAvailableException("incorrect cursor: " + token);
+        }
+        try {
+            return new BookingCursor(LocalDateTime.parse(token.substring(0, separator).trim()),
+                    Long.valueOf(token.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new NotAvailableException("incorrect cursor: " + token);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return start + "," + id;
+    }
+}
@@ -21,6 +21,11 @@ public class BookingDto {
 
     private Item item;
 
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                      Long bookerId, String bookerName, Long itemId, String itemName) {
+        this(id, start, end, status, new Booker(bookerId, bookerName), new Item(itemId, itemName));
+    }
+
     @Data
     public static class Booker {
         private final long id;
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where a booking stands relative to the clock. It is stored with the booking and moved forward by
+ * {@link ru.practicum.shareit.booking.BookingPhaseScheduler}, so a stored phase may lag behind the dates
+ * but is never ahead of them.
+ */
+public enum Phase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static Phase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        if (start.isBefore(now)) {
+            return CURRENT;
+        }
+        return FUTURE;
+    }
+}
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long id);
+    @Query("SELECT c FROM Comment AS c JOIN FETCH c.author WHERE c.item.id = :itemId")
+    List<Comment> findByItemId(@Param("itemId") Long id);
 
-    List<Comment> findByItemIdIn(List<Long> idItems, Sort sort);
+    @Query("SELECT c FROM Comment AS c JOIN FETCH c.author WHERE c.item.id IN :itemIds")
+    List<Comment> findByItemIdIn(@Param("itemIds") List<Long> idItems, Sort sort);
 }
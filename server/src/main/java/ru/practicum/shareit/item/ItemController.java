@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.util.JsonStreamWriter;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 import static ru.practicum.shareit.util.Pagination.getPageOrThrow;
@@ -15,6 +21,8 @@ import static ru.practicum.shareit.util.Pagination.getPageOrThrow;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService service;
+    private final ItemImporter importer;
+    private final ObjectMapper objectMapper;
     public static final String ITEM_OWNER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -23,6 +31,24 @@ public class ItemController {
         return service.addItem(itemShortDto, userId);
     }
 
+    @PostMapping("/bulk")
+    public List<ItemDto> addItems(@RequestBody List<ItemShortDto> itemShortDtos,
+                                  @RequestHeader(ITEM_OWNER_ID_HEADER) Long userId) {
+        return service.addItems(itemShortDtos, userId);
+    }
+
+    /**
+     * Imports a JSON array or NDJSON of items and answers with one result per row, as NDJSON for
+     * Accept: application/x-ndjson.
+     */
+    @PostMapping("/import")
+    public void importItems(@RequestHeader(ITEM_OWNER_ID_HEADER) Long userId,
+                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        importer.importItems(userId, request.getInputStream(), new JsonStreamWriter(objectMapper, accept, response));
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@PathVariable Long itemId,
                                @RequestHeader(ITEM_OWNER_ID_HEADER) Long userId) {
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.util.JsonStreamWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Imports items from a JSON array or NDJSON without reading the whole document: rows are parsed one at
+ * a time and saved in chunks of {@value #CHUNK_SIZE}, each chunk in its own transaction, and every row's
+ * result is written as soon as its chunk is saved. A row that cannot be mapped is rejected on its own and
+ * keeps its place in the chunk, so only full chunks and the last one are saved. Broken JSON stops the import
+ * wherever it occurs: the rows read so far are saved and a last result carrying the parse error closes
+ * the body, which stays well-formed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemImporter {
+    static final int CHUNK_SIZE = 500;
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+
+    public void importItems(Long userId, InputStream input, JsonStreamWriter results) throws IOException {
+        Chunk chunk = new Chunk(userId, results);
+        try (MappingIterator<ItemShortDto> rows = objectMapper.readerFor(ItemShortDto.class).readValues(input)) {
+            while (rows.hasNextValue()) {
+                ItemShortDto row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    chunk.reject("Строка не распознана: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (row == null) {
+                    chunk.reject("Пустая строка");
+                } else {
+                    chunk.add(row);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            String error = "Некорректный JSON после строки " + chunk.count() + ", импорт остановлен: "
+                    + e.getOriginalMessage();
+            chunk.reject(error);
+            log.warn("Импорт предметов пользователя {} остановлен: {}", userId, error);
+        }
+        chunk.save();
+        results.finish();
+        log.info("Импорт предметов пользователя {} завершен, строк: {}", userId, chunk.count());
+    }
+
+    private class Chunk {
+        private final Long userId;
+        private final JsonStreamWriter results;
+        private List<ItemShortDto> rows = new ArrayList<>(CHUNK_SIZE);
+        /**
+         * Results in the order of the rows: a rejected row has its result at once, the others are filled in
+         * when the chunk is saved.
+         */
+        private List<ItemImportResult> slots = new ArrayList<>(CHUNK_SIZE);
+        private long index;
+        private boolean started;
+
+        Chunk(Long userId, JsonStreamWriter results) {
+            this.userId = userId;
+            this.results = results;
+        }
+
+        void add(ItemShortDto row) {
+            rows.add(row);
+            fill(null);
+        }
+
+        void reject(String error) {
+            fill(ItemImportResult.rejected(error));
+        }
+
+        long count() {
+            return index + slots.size();
+        }
+
+        /**
+         * The first call always reaches the service, so that an unknown owner fails the request before
+         * any result has been written.
+         */
+        void save() {
+            if (slots.isEmpty() && started) {
+                return;
+            }
+            Iterator<ItemImportResult> saved = rows.isEmpty() && started
+                    ? Collections.emptyIterator()
+                    : itemService.importItems(rows, userId).iterator();
+            started = true;
+            for (ItemImportResult slot : slots) {
+                write(slot != null ? slot : saved.next());
+            }
+            rows = new ArrayList<>(CHUNK_SIZE);
+            slots = new ArrayList<>(CHUNK_SIZE);
+        }
+
+        private void fill(ItemImportResult slot) {
+            slots.add(slot);
+            if (slots.size() == CHUNK_SIZE) {
+                save();
+            }
+        }
+
+        private void write(ItemImportResult result) {
+            result.setIndex(index++);
+            results.write(result);
+        }
+    }
+}
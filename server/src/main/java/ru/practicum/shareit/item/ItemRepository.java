@@ -1,23 +1,41 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
 
-    List<Item> findAllByOwnerId(Long userId, Pageable page);
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllById(Iterable<Long> ids);
 
+    @Query("SELECT i FROM Item AS i JOIN FETCH i.owner WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<Item> findAllByOwnerId(@Param("ownerId") Long userId, Pageable page);
+
+    @EntityGraph(attributePaths = "owner")
     @Query("SELECT i FROM Item AS i " +
             "WHERE (LOWER(i.name) LIKE LOWER(concat('%', :text, '%')) " +
             "OR LOWER(i.description) LIKE LOWER(concat('%', :text, '%'))) AND i.available=true")
     List<Item> findByNameOrDescriptionAndAvailable(@Param("text") String text, Pageable page);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @Query(value = "SELECT i.* FROM items AS i " +
+            "WHERE i.is_available = true " +
+            "AND to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "to_tsquery('simple', :query)) DESC, i.id", nativeQuery = true)
+    List<Item> findByFullText(@Param("query") String query, Pageable page);
+
+    @Query("SELECT i FROM Item AS i JOIN FETCH i.owner WHERE i.request.id = :requestId")
+    List<Item> findAllByRequestId(@Param("requestId") Long requestId);
 
-    List<Item> findByRequest_IdIn(List<Long> requestsId);
+    @Query("SELECT i FROM Item AS i JOIN FETCH i.owner WHERE i.request.id IN :requestIds")
+    List<Item> findByRequest_IdIn(@Param("requestIds") List<Long> requestsId);
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
 import java.util.List;
@@ -10,6 +11,14 @@ import java.util.List;
 public interface ItemService {
     ItemDto addItem(ItemShortDto itemShortDto, Long itemId);
 
+    List<ItemDto> addItems(List<ItemShortDto> itemShortDtos, Long userId);
+
+    /**
+     * Saves one chunk of a streamed import in JDBC batches. Rows that fail validation or name an unknown
+     * request are rejected one by one instead of failing the chunk, the results follow the order of the rows.
+     */
+    List<ItemImportResult> importItems(List<ItemShortDto> itemShortDtos, Long userId);
+
     List<ItemDto> getAllItems(Long userId, Pageable page);
 
     ItemDto getItemById(Long itemId, Long userId);
@@ -6,22 +6,25 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
-import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
@@ -39,12 +42,17 @@ import static ru.practicum.shareit.user.UserMapper.userToModel;
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final int NAME_MAX_LENGTH = 500;
+    private static final int DESCRIPTION_MAX_LENGTH = 1000;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemRequestRepository requestsRepository;
     private final UserRepository userRepository;
+    private final ItemSearch itemSearch;
+    private final EntityManager entityManager;
 
     public ItemDto addItem(ItemShortDto itemShortDto, Long userId) {
         User user = userRepository.findById(userId).orElseThrow(()
@@ -61,6 +69,64 @@ public class ItemServiceImpl implements ItemService {
         return itemToDto(item);
     }
 
+    @Override
+    public List<ItemDto> addItems(List<ItemShortDto> itemShortDtos, Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(()
+                -> new NotFoundException("Пользователь с id = : " + userId + " не найден"));
+        Map<Long, ItemRequest> requests = findRequests(itemShortDtos);
+        List<Item> items = new ArrayList<>(itemShortDtos.size());
+        for (ItemShortDto itemShortDto : itemShortDtos) {
+            Item item = itemShortToModel(itemShortDto);
+            item.setId(null);
+            item.setOwner(user);
+            Long requestId = itemShortDto.getRequestId();
+            if (requestId != null) {
+                item.setRequest(Optional.ofNullable(requests.get(requestId)).orElseThrow(()
+                        -> new NotFoundException("Запрос с id: " + requestId + " не найден")));
+            }
+            items.add(item);
+        }
+        itemRepository.saveAll(items);
+        log.info("Создано предметов: {}", items.size());
+        return items.stream().map(ItemMapper::itemToDto).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemImportResult> importItems(List<ItemShortDto> itemShortDtos, Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(()
+                -> new NotFoundException("Пользователь с id = : " + userId + " не найден"));
+        Map<Long, ItemRequest> requests = findRequests(itemShortDtos);
+        List<ItemImportResult> results = new ArrayList<>(itemShortDtos.size());
+        List<ItemImportResult> created = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (ItemShortDto itemShortDto : itemShortDtos) {
+            String error = validate(itemShortDto, requests);
+            if (error != null) {
+                results.add(ItemImportResult.rejected(error));
+                continue;
+            }
+            Item item = itemShortToModel(itemShortDto);
+            item.setId(null);
+            item.setOwner(user);
+            if (itemShortDto.getRequestId() != null) {
+                item.setRequest(requests.get(itemShortDto.getRequestId()));
+            }
+            ItemImportResult result = ItemImportResult.created(null);
+            results.add(result);
+            created.add(result);
+            items.add(item);
+        }
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        for (int i = 0; i < items.size(); i++) {
+            created.get(i).setItem(itemToDto(items.get(i)));
+        }
+        // a long import runs many chunks in one request, the saved items must not pile up in its session
+        entityManager.clear();
+        log.info("Создано предметов: {}, отклонено: {}", created.size(), results.size() - created.size());
+        return results;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getAllItems(Long userId, Pageable page) {
@@ -107,7 +173,7 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return List.of();
         }
-        List<Item> items = itemRepository.findByNameOrDescriptionAndAvailable(text, page);
+        List<Item> items = itemSearch.search(text, page);
         log.info("Выполнен поиск по тексту {}", text);
         return getItemList(items);
     }
@@ -124,7 +190,8 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Предмет не найден"))));
 
         comment.setAuthor(userToModel(userService.getUserById(userId)));
-        if (!bookingRepository.existsByBookerIdAndEndBeforeAndStatus(userId, LocalDateTime.now(), Status.APPROVED)) {
+        if (!bookingRepository.existsByBookerIdAndEndBeforeAndStatus(userId, LocalDateTime.now(), Status.APPROVED)
+                && !archivedBookingRepository.existsByBookerIdAndStatus(userId, Status.APPROVED)) {
             throw new NotAvailableException("Комментарий не может быть создан");
         }
         comment.setCreated(LocalDateTime.now());
@@ -132,27 +199,50 @@ public class ItemServiceImpl implements ItemService {
         return commentToDto(commentRepository.save(comment));
     }
 
+    private Map<Long, ItemRequest> findRequests(List<ItemShortDto> itemShortDtos) {
+        Set<Long> requestIds = itemShortDtos.stream()
+                .map(ItemShortDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return requestsRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private static String validate(ItemShortDto itemShortDto, Map<Long, ItemRequest> requests) {
+        String name = itemShortDto.getName();
+        String description = itemShortDto.getDescription();
+        if (name == null || name.isBlank()) {
+            return "Не указано название";
+        }
+        if (name.length() > NAME_MAX_LENGTH) {
+            return "Название длиннее " + NAME_MAX_LENGTH + " символов";
+        }
+        if (description == null || description.isBlank()) {
+            return "Не указано описание";
+        }
+        if (description.length() > DESCRIPTION_MAX_LENGTH) {
+            return "Описание длиннее " + DESCRIPTION_MAX_LENGTH + " символов";
+        }
+        if (itemShortDto.getAvailable() == null) {
+            return "Не указана доступность";
+        }
+        Long requestId = itemShortDto.getRequestId();
+        if (requestId != null && !requests.containsKey(requestId)) {
+            return "Запрос с id: " + requestId + " не найден";
+        }
+        return null;
+    }
+
     private List<ItemDto> getItemList(Collection<Item> items) {
         List<ItemDto> itemDtoList = items.stream().map(ItemMapper::itemToDto).collect(Collectors.toList());
         List<Long> idItems = itemDtoList.stream().map(ItemDto::getId).collect(Collectors.toList());
-        Map<Long, BookingItemDto> lastBookings = bookingRepository.findFirstByItemIdInAndStartLessThanEqualAndStatus(
-                        idItems, LocalDateTime.now(), Status.APPROVED, Sort.by(DESC, "start"))
-                .stream()
-                .map(BookingMapper::bookToItem)
-                .collect(Collectors.toMap(BookingItemDto::getItemId, Function.identity()));
-        itemDtoList.forEach(i -> i.setLastBooking(lastBookings.get(i.getId())));
-        Map<Long, BookingItemDto> nextBookings = bookingRepository.findFirstByItemIdInAndStartAfterAndStatus(
-                        idItems, LocalDateTime.now(), Status.APPROVED, Sort.by(Sort.Direction.ASC, "start"))
-                .stream()
-                .map(BookingMapper::bookToItem)
-                .collect(Collectors.toMap(BookingItemDto::getItemId, Function.identity()));
-        itemDtoList.forEach(i -> i.setNextBooking(nextBookings.get(i.getId())));
+        setLastAndNextBookings(itemDtoList);
 
         Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(idItems,
                         Sort.by(DESC, "created"))
                 .stream()
                 .map(CommentMapper::commentToDto)
-                .collect(Collectors.groupingBy(CommentDto::getId));
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
 
         itemDtoList.forEach(i -> i.setComments(comments.get(i.getId())));
         itemDtoList.sort(comparing(ItemDto::getId));
@@ -169,20 +259,32 @@ public class ItemServiceImpl implements ItemService {
 
     private ItemDto setBookings(ItemDto itemDto, Long userId) {
         if (itemDto.getOwner().getId().equals(userId)) {
-            itemDto.setLastBooking(
-                    bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(itemDto.getId(),
-                                    LocalDateTime.now(), Status.APPROVED).map(BookingMapper::bookToItem)
-                            .orElse(null));
-
-            itemDto.setNextBooking(
-                    bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(itemDto.getId(),
-                                    LocalDateTime.now(), Status.APPROVED).map(BookingMapper::bookToItem)
-                            .orElse(null));
-
+            setLastAndNextBookings(List.of(itemDto));
             return itemDto;
         }
         log.info("Предмет забронирован");
         return itemDto;
     }
 
+    private void setLastAndNextBookings(List<ItemDto> items) {
+        Map<Long, ItemDto> itemsById = items.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findLastAndNextApproved(itemsById.keySet(), now).forEach(booking -> {
+            ItemDto item = itemsById.get(booking.getItemId());
+            if (booking.getStart().isAfter(now)) {
+                item.setNextBooking(booking);
+            } else {
+                item.setLastBooking(booking);
+            }
+        });
+        // the last booking of an item that was not booked since the retention period lies in the archive
+        Set<Long> withoutLast = items.stream()
+                .filter(item -> item.getLastBooking() == null)
+                .map(ItemDto::getId)
+                .collect(Collectors.toSet());
+        archivedBookingRepository.findLastApproved(withoutLast)
+                .forEach(booking -> itemsById.get(booking.getItemId()).setLastBooking(booking));
+    }
+
 }
\ No newline at end of file
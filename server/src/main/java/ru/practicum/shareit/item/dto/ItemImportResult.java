@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one row of a bulk import: the created item, or the reason the row was rejected.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    private long index;
+    private ItemDto item;
+    private String error;
+
+    public static ItemImportResult created(ItemDto item) {
+        return new ItemImportResult(0, item, null);
+    }
+
+    public static ItemImportResult rejected(String error) {
+        return new ItemImportResult(0, null, error);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Pages over the ordered candidate ids of an in-process index after re-checking them against the database,
+ * so a candidate that turned out stale does not leave its page short. The candidates are loaded in batches
+ * until the page is filled, usually by the first one.
+ */
+final class CandidatePage {
+
+    private CandidatePage() {
+    }
+
+    static List<Item> load(ItemRepository itemRepository, List<Long> candidates, Predicate<Item> check,
+                           Pageable page) {
+        long skip = page.isPaged() ? page.getOffset() : 0;
+        long limit = page.isPaged() ? page.getPageSize() : Long.MAX_VALUE;
+        List<Item> items = new ArrayList<>();
+        int from = 0;
+        while (from < candidates.size() && items.size() < limit) {
+            long wanted = Math.max(skip + limit - items.size(), 1);
+            int to = (int) Math.min(candidates.size(), from + wanted);
+            List<Long> batch = candidates.subList(from, to);
+            Map<Long, Item> loaded = itemRepository.findAllById(batch).stream()
+                    .filter(check)
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Long id : batch) {
+                Item item = loaded.get(id);
+                if (item == null || items.size() >= limit) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    items.add(item);
+                }
+            }
+            from = to;
+        }
+        return items;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index over item names and descriptions for databases without full-text support.
+ * Every query token is matched as a word prefix; items matching a token exactly rank higher.
+ * The candidates are re-checked against the database before paging, so stale entries never reach the response.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryItemSearch implements ItemSearch {
+    private static final int EXACT_MATCH_SCORE = 2;
+    private static final int PREFIX_MATCH_SCORE = 1;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, List<String>> indexedTokens = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        items.forEach(this::index);
+        log.info("Поисковый индекс построен: {} предметов", items.size());
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        remove(item);
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        List<String> tokens = tokenize(item);
+        tokens.forEach(token -> postings.computeIfAbsent(token, t -> new HashSet<>()).add(item.getId()));
+        indexedTokens.put(item.getId(), tokens);
+    }
+
+    @Override
+    public synchronized void remove(Item item) {
+        List<String> tokens = indexedTokens.remove(item.getId());
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(item.getId());
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        List<String> queryTokens = ItemSearch.tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> scores = score(queryTokens);
+        List<Long> ranked = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        return CandidatePage.load(itemRepository, ranked,
+                item -> Boolean.TRUE.equals(item.getAvailable()) && matches(item, queryTokens), page);
+    }
+
+    private synchronized Map<Long, Integer> score(List<String> queryTokens) {
+        Map<Long, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                    .forEach((token, ids) -> {
+                        int score = token.equals(queryToken) ? EXACT_MATCH_SCORE : PREFIX_MATCH_SCORE;
+                        ids.forEach(id -> tokenScores.merge(id, score, Math::max));
+                    });
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private static boolean matches(Item item, List<String> queryTokens) {
+        List<String> tokens = tokenize(item);
+        return queryTokens.stream().allMatch(queryToken -> tokens.stream().anyMatch(t -> t.startsWith(queryToken)));
+    }
+
+    private static List<String> tokenize(Item item) {
+        return ItemSearch.tokenize(item.getName() + " " + item.getDescription());
+    }
+}
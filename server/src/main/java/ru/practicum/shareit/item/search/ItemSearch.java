@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public interface ItemSearch {
+
+    List<Item> search(String text, Pageable page);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Item item) {
+    }
+
+    static List<String> tokenize(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
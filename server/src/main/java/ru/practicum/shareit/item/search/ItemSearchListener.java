@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the in-process indexes in step with items. The entity callbacks run when the session flushes,
+ * before the transaction commits, so the index is changed only once the transaction has committed and
+ * a rolled back save leaves no entry behind.
+ */
+@RequiredArgsConstructor
+public class ItemSearchListener {
+    private final ObjectProvider<ItemSearch> itemSearch;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        afterCommit(search -> search.index(item));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        afterCommit(search -> search.remove(item));
+    }
+
+    private void afterCommit(Consumer<ItemSearch> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemSearch.ifAvailable(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemSearch.ifAvailable(change);
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        List<String> tokens = ItemSearch.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String query = tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        return itemRepository.findByFullText(query, page);
+    }
+}
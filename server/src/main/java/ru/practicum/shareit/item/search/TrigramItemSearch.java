@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * In-process trigram index with the same substring semantics as
+ * {@link ItemRepository#findByNameOrDescriptionAndAvailable}: the text must occur inside the name
+ * or the description of an available item, case-insensitively. Posting lists of the query trigrams
+ * narrow down the candidates, which are then checked for the full substring.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+@RequiredArgsConstructor
+public class TrigramItemSearch implements ItemSearch {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final NavigableMap<Long, IndexedText> indexedTexts = new TreeMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        items.forEach(this::index);
+        log.info("Триграммный индекс построен: {} предметов", items.size());
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        remove(item);
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        IndexedText text = new IndexedText(lower(item.getName()), lower(item.getDescription()));
+        text.trigrams().forEach(gram -> postings.computeIfAbsent(gram, g -> new TreeSet<>()).add(item.getId()));
+        indexedTexts.put(item.getId(), text);
+    }
+
+    @Override
+    public synchronized void remove(Item item) {
+        IndexedText text = indexedTexts.remove(item.getId());
+        if (text == null) {
+            return;
+        }
+        for (String gram : text.trigrams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(item.getId());
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        String query = lower(text);
+        return CandidatePage.load(itemRepository, match(query),
+                item -> Boolean.TRUE.equals(item.getAvailable())
+                        && new IndexedText(lower(item.getName()), lower(item.getDescription())).contains(query),
+                page);
+    }
+
+    private synchronized List<Long> match(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = lists.isEmpty() ? indexedTexts.keySet() : lists.remove(0);
+        return candidates.stream()
+                .filter(id -> lists.stream().allMatch(ids -> ids.contains(id)))
+                .filter(id -> indexedTexts.get(id).contains(query))
+                .collect(Collectors.toList());
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new TreeSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static class IndexedText {
+        private final String name;
+        private final String description;
+
+        IndexedText(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> trigrams() {
+            Set<String> grams = TrigramItemSearch.trigrams(name);
+            grams.addAll(TrigramItemSearch.trigrams(description));
+            return grams;
+        }
+    }
+}
@@ -2,15 +2,20 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequesterId(Long userId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest AS r WHERE r.requester.id = :requesterId")
+    List<ItemRequest> findByRequesterId(@Param("requesterId") Long userId, Pageable pageable);
 
-    List<ItemRequest> findAllByRequesterIdNot(Long userId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest AS r WHERE r.requester.id <> :requesterId")
+    List<ItemRequest> findAllByRequesterIdNot(@Param("requesterId") Long userId, Pageable pageable);
 
-    List<ItemRequest> findAllByRequesterId(Long userId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest AS r WHERE r.requester.id = :requesterId")
+    List<ItemRequest> findAllByRequesterId(@Param("requesterId") Long userId, Pageable pageable);
 
 }
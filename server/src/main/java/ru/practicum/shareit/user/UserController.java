@@ -1,19 +1,27 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.JsonStreamWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
+import static ru.practicum.shareit.util.Pagination.getLimitOrThrow;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/users")
 @Slf4j
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -24,6 +32,15 @@ public class UserController {
         return user;
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<UserDto> addUsers(@RequestBody List<UserDto> userDtos) {
+        log.info(String.format("POST /users/bulk, %s шт.", userDtos.size()));
+        final List<UserDto> users = userService.addUsers(userDtos);
+        log.info(String.format("Успешно добавлены пользователи (%s шт.)", users.size()));
+        return users;
+    }
+
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable long userId, @RequestBody UserDto userDto) {
         log.info(String.format("PATCH /users/{userId}, body = %s, {userId} = %s", userDto, userId));
@@ -39,10 +56,24 @@ public class UserController {
         log.info(String.format("Пользователь с id = %s успешно удален", userId));
     }
 
+    /**
+     * Streams every user as a JSON array, or as NDJSON for Accept: application/x-ndjson.
+     */
     @GetMapping
-    public List<UserDto> getUsers() {
+    public void getUsers(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                         HttpServletResponse response) throws IOException {
         log.info("GET /users");
-        List<UserDto> users = userService.getAllUsers();
+        JsonStreamWriter users = new JsonStreamWriter(objectMapper, accept, response);
+        userService.forEachUser(users::write);
+        users.finish();
+        log.info(String.format("Успешно получены пользователи (%s шт.)", users.getCount()));
+    }
+
+    @GetMapping(params = "after")
+    public List<UserDto> getUsersAfter(@RequestParam long after,
+                                       @RequestParam(defaultValue = "10") Integer size) {
+        log.info(String.format("GET /users, after = %s, size = %s", after, size));
+        List<UserDto> users = userService.getUsersAfter(after, getLimitOrThrow(size));
         log.info(String.format("Успешно получены пользователи (%s шт.)", users.size()));
         return users;
     }
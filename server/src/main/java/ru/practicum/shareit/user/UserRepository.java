@@ -1,9 +1,44 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 public interface UserRepository extends JpaRepository<User, Long> {
-}
+    int STREAM_FETCH_SIZE = 500;
 
+    /**
+     * Every booking and request read checks its user first, the answer stays in the query cache
+     * until the users table changes.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN TRUE ELSE FALSE END FROM User AS u WHERE u.id = :id")
+    boolean existsById(@Param("id") Long id);
 
+    /**
+     * All users in id order, read through a cursor that fetches {@value #STREAM_FETCH_SIZE} rows at a time.
+     * Must be consumed and closed inside a transaction. A full listing would only evict the hot users from
+     * the second-level cache, so it bypasses it.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u FROM User AS u ORDER BY u.id")
+    Stream<User> streamAll();
+
+    List<User> findAllByIdGreaterThanOrderById(Long id, Pageable page);
+}
@@ -3,10 +3,13 @@ package ru.practicum.shareit.user;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto addUser(UserDto userDto);
 
+    List<UserDto> addUsers(List<UserDto> userDtos);
+
     UserDto updateUser(long userId, UserDto userDto);
 
     void deleteUser(Long userId);
@@ -15,4 +18,11 @@ public interface UserService {
 
     List<UserDto> getAllUsers();
 
+    /**
+     * Hands the users to the action one by one in id order, without holding the whole table in memory.
+     */
+    void forEachUser(Consumer<UserDto> action);
+
+    List<UserDto> getUsersAfter(long afterId, int size);
+
 }
@@ -3,15 +3,25 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.user.UserMapper.userToDto;
 import static ru.practicum.shareit.user.UserMapper.userToModel;
@@ -22,12 +32,16 @@ import static ru.practicum.shareit.user.UserMapper.userToModel;
 @Transactional
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     public UserDto addUser(UserDto userDto) {
         User user = userToModel(userDto);
         try {
-            return userToDto(userRepository.save(user));
+            User saved = userRepository.save(user);
+            userRepository.flush();
+            return userToDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new AlreadyExistsException(String.format(
                     "Пользователь с email %s уже зарегистрирован", userDto.getEmail()
@@ -35,6 +49,20 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public List<UserDto> addUsers(List<UserDto> userDtos) {
+        List<User> users = userDtos.stream().map(UserMapper::userToModel).collect(Collectors.toList());
+        // an id in the body would turn the insert into a merge over someone else's row
+        users.forEach(user -> user.setId(null));
+        try {
+            users = userRepository.saveAllAndFlush(users);
+        } catch (DataIntegrityViolationException e) {
+            throw new AlreadyExistsException("Среди пользователей есть email, который уже зарегистрирован");
+        }
+        log.info("Добавлено пользователей: {}", users.size());
+        return users.stream().map(UserMapper::userToDto).collect(Collectors.toList());
+    }
+
     @Override
     public UserDto updateUser(long userId, UserDto userDto) {
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Error"));
@@ -51,6 +79,29 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        evictCascadedAfterCommit();
+    }
+
+    /**
+     * The user's items and requests are removed by the on delete cascade of the database, which Hibernate
+     * never sees, so their cache regions are cleared once the deletion has committed.
+     */
+    private void evictCascadedAfterCommit() {
+        Runnable evict = () -> {
+            Cache cache = entityManagerFactory.getCache();
+            cache.evict(Item.class);
+            cache.evict(ItemRequest.class);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
     }
 
     @Transactional(readOnly = true)
@@ -71,4 +122,23 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachUser(Consumer<UserDto> action) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                action.accept(userToDto(user));
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserDto> getUsersAfter(long afterId, int size) {
+        return userRepository.findAllByIdGreaterThanOrderById(afterId, PageRequest.ofSize(size))
+                .stream()
+                .map(UserMapper::userToDto)
+                .collect(Collectors.toList());
+    }
 }
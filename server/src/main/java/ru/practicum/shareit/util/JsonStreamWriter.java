@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a response body element by element straight to the servlet output stream: a JSON array, or
+ * newline-delimited JSON when the caller accepts application/x-ndjson. Only the element being written is
+ * held in memory, the container flushes in chunks as its buffer fills. A body that fails before
+ * {@link #finish()} is left unterminated, so that the client cannot mistake it for a complete one.
+ */
+public class JsonStreamWriter {
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private final boolean ndjson;
+    @Getter
+    private long count;
+
+    public JsonStreamWriter(ObjectMapper objectMapper, @Nullable String accept, HttpServletResponse response)
+            throws IOException {
+        this.ndjson = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+        if (!ndjson) {
+            generator.writeStartArray();
+        }
+    }
+
+    public void write(Object value) {
+        try {
+            writer.writeValue(generator, value);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        if (!ndjson) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
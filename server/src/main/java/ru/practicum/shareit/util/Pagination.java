@@ -15,4 +15,11 @@ public class Pagination {
         from = from / size;
         return PageRequest.of(from, size);
     }
+
+    public static int getLimitOrThrow(Integer size) {
+        if (size == null || size <= 0) {
+            throw new NotAvailableException("incorrect page parameters");
+        }
+        return size;
+    }
 }
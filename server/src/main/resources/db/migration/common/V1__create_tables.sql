@@ -1,4 +1,3 @@
-DROP TABLE IF EXISTS users, requests, items, comments, bookings;
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
@@ -56,5 +55,3 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT FK_COMMENT_AUTHOR FOREIGN KEY (author_id) REFERENCES users
     on delete cascade on update cascade
     );
-
-
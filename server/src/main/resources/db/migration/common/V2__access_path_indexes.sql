@@ -0,0 +1,15 @@
+-- booker listings: booker_id [+ start/end/status filter] ORDER BY start_date DESC, id DESC
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+-- owner listings join items by owner_id, then bookings by item_id in the same order
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_START ON bookings (item_id, start_date DESC, id DESC);
+-- last/next approved booking per item, availability index load
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_STATUS_START ON bookings (item_id, status, start_date);
+-- comment admission: finished approved bookings of a booker
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_STATUS_END ON bookings (booker_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_OWNER ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_REQUEST ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS IDX_COMMENTS_ITEM ON comments (item_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_REQUESTS_REQUESTER_CREATED ON requests (requester_id, created DESC);
@@ -0,0 +1,12 @@
+-- Booking phase, moved forward by the scheduler: FUTURE -> CURRENT -> PAST. FUTURE is the safe default,
+-- listings still compare dates, so a phase that lags behind only costs a few extra rows to scan.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10) DEFAULT 'FUTURE' NOT NULL;
+UPDATE bookings SET phase = CASE WHEN end_date < LOCALTIMESTAMP THEN 'PAST'
+    WHEN start_date < LOCALTIMESTAMP THEN 'CURRENT' ELSE 'FUTURE' END;
+
+-- current and future listings of a booker or of an owner's items skip the booking history
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_PHASE_START ON bookings (booker_id, phase, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_PHASE_START ON bookings (item_id, phase, start_date DESC, id DESC);
+-- scheduler: future bookings that have started, not yet past bookings that have ended
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_PHASE_START ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_PHASE_END ON bookings (phase, end_date);
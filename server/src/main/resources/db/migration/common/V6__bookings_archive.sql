@@ -0,0 +1,20 @@
+-- Cold storage for bookings that ended long ago, filled by BookingArchive. Listings that may include
+-- past bookings read it after the bookings table, through the same index shapes.
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status varchar NOT NULL,
+    CONSTRAINT PK_BOOKINGS_ARCHIVE PRIMARY KEY (id),
+    CONSTRAINT FK_BOOKINGS_ARCHIVE_ITEM FOREIGN KEY (item_id) REFERENCES items
+    on delete cascade on update cascade,
+    CONSTRAINT FK_BOOKINGS_ARCHIVE_BOOKER FOREIGN KEY (booker_id) REFERENCES users
+    on delete cascade on update cascade
+    );
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ARCHIVE_BOOKER_START ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ARCHIVE_ITEM_START ON bookings_archive (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ARCHIVE_ITEM_STATUS_START ON bookings_archive (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ARCHIVE_BOOKER_STATUS ON bookings_archive (booker_id, status);
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_FULL_TEXT ON items
+    USING gin (to_tsvector('simple', name || ' ' || description));
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_NAME_TRGM ON items USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_DESCRIPTION_TRGM ON items USING gin (LOWER(description) gin_trgm_ops);
@@ -0,0 +1,84 @@
+-- Monthly range partitions of bookings on start_date. Bookings outside the created months land in
+-- bookings_default. BookingArchive creates the coming months ahead and drops the months that archiving
+-- has emptied, so the number of partitions every booker or owner lookup probes stays bounded.
+-- The primary key has to include the partition key, ids stay unique through bookings_seq.
+
+CREATE OR REPLACE FUNCTION create_bookings_partition(month TIMESTAMP) RETURNS BOOLEAN AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', month);
+    month_end TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition_name TEXT := 'bookings_' || to_char(month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition_name);
+    -- the default partition may already hold bookings of this month, they move over before attaching
+    EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE start_date >= %L AND start_date < %L '
+                       'RETURNING *) INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION drop_empty_bookings_partitions(before TIMESTAMP) RETURNS INTEGER AS $$
+DECLARE
+    partition_name TEXT;
+    has_rows BOOLEAN;
+    dropped INTEGER := 0;
+BEGIN
+    FOR partition_name IN SELECT c.relname FROM pg_inherits AS i JOIN pg_class AS c ON c.oid = i.inhrelid
+                          WHERE i.inhparent = 'bookings'::regclass
+                            AND c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$' LOOP
+        IF to_date(substr(partition_name, 10), 'YYYY_MM') + INTERVAL '1 month' <= before THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', partition_name) INTO has_rows;
+            IF NOT has_rows THEN
+                EXECUTE format('DROP TABLE %I', partition_name);
+                dropped := dropped + 1;
+            END IF;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER SEQUENCE bookings_seq OWNED BY NONE;
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+CREATE TABLE bookings (
+    id BIGINT DEFAULT nextval('bookings_seq') NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status varchar NOT NULL,
+    phase VARCHAR(10) DEFAULT 'FUTURE' NOT NULL,
+    CONSTRAINT PK_BOOKINGS PRIMARY KEY (id, start_date),
+    CONSTRAINT FK_BOOKINGS_ITEM FOREIGN KEY (item_id) REFERENCES items
+    on delete cascade on update cascade,
+    CONSTRAINT FK_BOOKINGS_BOOKER FOREIGN KEY (booker_id) REFERENCES users
+    on delete cascade on update cascade
+    ) PARTITION BY RANGE (start_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+SELECT create_bookings_partition(month)
+FROM generate_series(date_trunc('month', COALESCE((SELECT MIN(start_date) FROM bookings_unpartitioned), LOCALTIMESTAMP)),
+                     date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 month', INTERVAL '1 month') AS month;
+
+INSERT INTO bookings (id, item_id, booker_id, start_date, end_date, status, phase)
+SELECT id, item_id, booker_id, start_date, end_date, status, phase FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+-- the indexes of V2 and V5, created on every partition
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_START ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_STATUS_START ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_STATUS_END ON bookings (booker_id, status, end_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_PHASE_START ON bookings (booker_id, phase, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_PHASE_START ON bookings (item_id, phase, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_PHASE_START ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_PHASE_END ON bookings (phase, end_date);
@@ -0,0 +1,65 @@
+-- Overlapping waiting or approved bookings of one item are rejected by the database as well, so server
+-- instances that do not share ItemBookingLocks still cannot double book an item. PostgreSQL does not
+-- support exclusion constraints on the partitioned bookings table, so the constraint lives on
+-- booking_slots, which the triggers below keep in step with bookings.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE IF NOT EXISTS booking_slots (
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status varchar NOT NULL,
+    CONSTRAINT PK_BOOKING_SLOTS PRIMARY KEY (booking_id),
+    CONSTRAINT EXCL_BOOKING_SLOTS_ITEM_PERIOD EXCLUDE USING gist
+        (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status IN ('WAITING', 'APPROVED'))
+);
+
+CREATE OR REPLACE FUNCTION sync_booking_slot() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO booking_slots (booking_id, item_id, start_date, end_date, status)
+        VALUES (NEW.id, NEW.item_id, NEW.start_date, NEW.end_date, NEW.status);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE booking_slots
+        SET item_id = NEW.item_id, start_date = NEW.start_date, end_date = NEW.end_date, status = NEW.status
+        WHERE booking_id = OLD.id;
+    ELSE
+        DELETE FROM booking_slots WHERE booking_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- phase updates touch many rows every minute and do not change the slots
+CREATE TRIGGER TRG_BOOKINGS_SLOT_INSERT_DELETE AFTER INSERT OR DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION sync_booking_slot();
+CREATE TRIGGER TRG_BOOKINGS_SLOT_UPDATE AFTER UPDATE OF item_id, start_date, end_date, status ON bookings
+    FOR EACH ROW EXECUTE FUNCTION sync_booking_slot();
+
+-- bookings that already overlap stay as they are, the earliest of them takes the slot
+INSERT INTO booking_slots (booking_id, item_id, start_date, end_date, status)
+SELECT id, item_id, start_date, end_date, status FROM bookings ORDER BY id
+ON CONFLICT DO NOTHING;
+
+-- moving bookings out of bookings_default deletes their slots, they are taken again once the partition is attached
+CREATE OR REPLACE FUNCTION create_bookings_partition(month TIMESTAMP) RETURNS BOOLEAN AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', month);
+    month_end TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition_name TEXT := 'bookings_' || to_char(month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE start_date >= %L AND start_date < %L '
+                       'RETURNING *) INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    EXECUTE format('INSERT INTO booking_slots (booking_id, item_id, start_date, end_date, status) '
+                       'SELECT id, item_id, start_date, end_date, status FROM %I ORDER BY id ON CONFLICT DO NOTHING',
+                   partition_name);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Restarts must keep the data: migrations run against databases created by the old schema.sql
+ * and against already migrated ones without touching existing rows.
+ */
+public class MigrationTest {
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private Flyway flyway;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Properties properties = PropertiesLoaderUtils.loadAllProperties("application.properties");
+        flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations(Arrays.stream(properties.getProperty("spring.flyway.locations").split(","))
+                        .map(location -> location.replace("{vendor}", "h2"))
+                        .toArray(String[]::new))
+                .baselineOnMigrate(Boolean.parseBoolean(properties.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(properties.getProperty("spring.flyway.baseline-version"))
+                .load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void migrateLegacySchemaKeepsDataTest() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_tables.sql"))
+                .execute(dataSource);
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('John', 'john@test.com')");
+
+        MigrateResult result = flyway.migrate();
+
+        assertTrue(result.success);
+        assertEquals("1", result.initialSchemaVersion);
+        assertEquals(4, result.migrationsExecuted);
+        assertEquals("6", flyway.info().current().getVersion().getVersion());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE INDEX_NAME = 'IDX_ITEMS_OWNER'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Integer.class));
+    }
+
+    @Test
+    void migrateAssignsBookingPhasesTest() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_tables.sql"))
+                .execute(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'John', 'john@test.com')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (1, 'Дрель', 'Ударная дрель', TRUE, 1)");
+        jdbcTemplate.update("INSERT INTO bookings (item_id, booker_id, start_date, end_date, status) VALUES " +
+                "(1, 1, DATEADD(DAY, -2, LOCALTIMESTAMP), DATEADD(DAY, -1, LOCALTIMESTAMP), 'APPROVED'), " +
+                "(1, 1, DATEADD(DAY, -1, LOCALTIMESTAMP), DATEADD(DAY, 1, LOCALTIMESTAMP), 'APPROVED'), " +
+                "(1, 1, DATEADD(DAY, 1, LOCALTIMESTAMP), DATEADD(DAY, 2, LOCALTIMESTAMP), 'WAITING')");
+
+        flyway.migrate();
+        jdbcTemplate.update("INSERT INTO bookings (item_id, booker_id, start_date, end_date, status) " +
+                "VALUES (1, 1, DATEADD(DAY, -2, LOCALTIMESTAMP), DATEADD(DAY, -1, LOCALTIMESTAMP), 'APPROVED')");
+
+        assertEquals(List.of("PAST", "CURRENT", "FUTURE", "FUTURE"),
+                jdbcTemplate.queryForList("SELECT phase FROM bookings ORDER BY id", String.class));
+    }
+
+    @Test
+    void sequenceDefaultKeepsSqlInsertsWorkingTest() {
+        flyway.migrate();
+
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('John', 'john@test.com')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Jane', 'jane@test.com')");
+
+        assertEquals(List.of(1L, 51L), jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class));
+    }
+
+    @Test
+    void repeatedMigrateIsNoOpTest() {
+        flyway.migrate();
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('John', 'john@test.com')");
+
+        MigrateResult restart = flyway.migrate();
+
+        assertEquals(0, restart.migrationsExecuted);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Points the context of a {@link PostgresTest} at its database. The container is started once and shared
+ * by all such tests, Testcontainers removes it when the JVM exits.
+ */
+public class PostgresDatabase implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+    private static final String URL_PROPERTY = "shareit.test.postgres.url";
+    private static PostgreSQLContainer<?> container;
+
+    static boolean isAvailable() {
+        return System.getProperty(URL_PROPERTY) != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        String url = System.getProperty(URL_PROPERTY);
+        String username = System.getProperty("shareit.test.postgres.username", "postgres");
+        String password = System.getProperty("shareit.test.postgres.password", "postgres");
+        if (url == null) {
+            PostgreSQLContainer<?> postgres = start();
+            url = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        TestPropertyValues.of(
+                "spring.datasource.driverClassName=org.postgresql.Driver",
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=" + username,
+                "spring.datasource.password=" + password
+        ).applyTo(context);
+    }
+
+    private static synchronized PostgreSQLContainer<?> start() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+        }
+        return container;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A Spring Boot test against a real PostgreSQL, for the migrations and constraints that H2 does not run.
+ * The database is the one named by the shareit.test.postgres.url system property, or a Testcontainers
+ * container when that is not set. Without either the test is skipped.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {"shareit.search.engine=trigram", "shareit.booking-archive.partitioned=true"})
+@ContextConfiguration(initializers = PostgresDatabase.class)
+@EnabledIf("ru.practicum.shareit.PostgresDatabase#isAvailable")
+public @interface PostgresTest {
+}
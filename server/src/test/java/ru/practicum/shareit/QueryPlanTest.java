@@ -0,0 +1,214 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingPhaseScheduler;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.BookingSpecifications.archivedInState;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasArchivedBooker;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasArchivedItemOwner;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasBooker;
+import static ru.practicum.shareit.booking.BookingSpecifications.hasItemOwner;
+import static ru.practicum.shareit.booking.BookingSpecifications.inState;
+
+/**
+ * Runs EXPLAIN on the SQL that the hot repository methods actually issue and fails if any of them
+ * falls back to a full table scan. The tables are seeded and analyzed first, on empty tables every
+ * plan is a scan.
+ * H2 indexes foreign keys on its own and PostgreSQL does not, so a lookup through such an implicit
+ * index must also be covered by one of the IDX_ indexes from the migrations.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$SqlRecorder")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanTest {
+    private static final Pattern INDEX_LOOKUP = Pattern.compile("/\\* PUBLIC\\.(\\w+): (\\w+) ");
+    private static final Long ID = 1L;
+    private static final int USERS = 1_000;
+    private static final int ITEMS = 10_000;
+    private static final int BOOKINGS = 100_000;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingPhaseScheduler bookingPhaseScheduler;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final LocalDateTime now = LocalDateTime.now();
+    private final Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class) == 0) {
+            seed();
+        }
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) SELECT x, 'user' || x, 'user' || x || '@plan.test' " +
+                "FROM SYSTEM_RANGE(1, ?)", USERS);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created) " +
+                "SELECT x, 'request' || x, MOD(x, ?) + 1, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", USERS, ITEMS / 10);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "SELECT x, 'item' || x, 'description' || x, TRUE, MOD(x, ?) + 1, " +
+                "CASE WHEN MOD(x, 10) = 0 THEN x / 10 END FROM SYSTEM_RANGE(1, ?)", USERS, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (id, item_id, booker_id, start_date, end_date, status, phase) " +
+                "SELECT x, MOD(x, ?) + 1, MOD(x * 7, ?) + 1, DATEADD(DAY, MOD(x, 365) - 180, CURRENT_TIMESTAMP), " +
+                "DATEADD(DAY, MOD(x, 365) - 179, CURRENT_TIMESTAMP), " +
+                "CASEWHEN(MOD(x, 3) = 0, 'WAITING', 'APPROVED'), " +
+                "CASEWHEN(MOD(x, 365) < 179, 'PAST', CASEWHEN(MOD(x, 365) = 179, 'CURRENT', 'FUTURE')) " +
+                "FROM SYSTEM_RANGE(1, ?)", ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, item_id, booker_id, start_date, end_date, status) " +
+                "SELECT x + ?, MOD(x, ?) + 1, MOD(x * 7, ?) + 1, DATEADD(DAY, -MOD(x, 730) - 400, CURRENT_TIMESTAMP), " +
+                "DATEADD(DAY, -MOD(x, 730) - 399, CURRENT_TIMESTAMP), CASEWHEN(MOD(x, 5) = 0, 'REJECTED', 'APPROVED') " +
+                "FROM SYSTEM_RANGE(1, ?)", BOOKINGS, ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT x, 'comment' || x, MOD(x, ?) + 1, MOD(x, ?) + 1, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                ITEMS, USERS, ITEMS * 2);
+        for (String table : List.of("users", "requests", "items", "bookings", "comments")) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH (SELECT MAX(id) + 1 FROM " + table + ")");
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookerBookingQueriesUseIndexesTest() {
+        bookingRepository.findAllByBookerId(ID, page);
+        bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(ID, now, page);
+        bookingRepository.findAllByBookerIdAndEndBefore(ID, now, page);
+        bookingRepository.findAllByBookerIdAndStartAfter(ID, now, page);
+        bookingRepository.findAllByBookerIdAndStatus(ID, Status.WAITING, page);
+        bookingRepository.findAllAfter(hasBooker(ID).and(inState(State.ALL, now)),
+                new BookingCursor(now, ID), 10);
+        bookingRepository.existsByBookerIdAndEndBeforeAndStatus(ID, now, Status.APPROVED);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void ownerBookingQueriesUseIndexesTest() {
+        bookingRepository.findAllByItemOwnerId(ID, page);
+        bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(ID, now, page);
+        bookingRepository.findAllByItemOwnerIdAndEndBefore(ID, now, page);
+        bookingRepository.findAllByItemOwnerIdAndStartAfter(ID, now, page);
+        bookingRepository.findAllByItemOwnerIdAndStatus(ID, Status.REJECTED, page);
+        bookingRepository.findAllAfter(hasItemOwner(ID).and(inState(State.FUTURE, now)), null, 10);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemBookingQueriesUseIndexesTest() {
+        bookingRepository.findLastAndNextApproved(List.of(ID, 2L), now);
+        bookingRepository.findAllIntervalsByItemIdAndStatusNot(ID, Status.REJECTED);
+        bookingRepository.findAllByIdIn(List.of(ID, 2L));
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void bookingPhaseUpdatesUseIndexesTest() {
+        bookingPhaseScheduler.advance();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void archivedBookingQueriesUseIndexesTest() {
+        archivedBookingRepository.findAllByBookerId(ID, page);
+        archivedBookingRepository.findAllByBookerIdAndStatus(ID, Status.REJECTED, page);
+        archivedBookingRepository.findAllByItemOwnerId(ID, page);
+        archivedBookingRepository.findAllByItemOwnerIdAndStatus(ID, Status.WAITING, page);
+        archivedBookingRepository.findAllAfter(hasArchivedBooker(ID).and(archivedInState(State.PAST)),
+                new BookingCursor(now.minusYears(1), ID), 10);
+        archivedBookingRepository.findAllAfter(hasArchivedItemOwner(ID).and(archivedInState(State.ALL)), null, 10);
+        archivedBookingRepository.existsByBookerIdAndStatus(ID, Status.APPROVED);
+        archivedBookingRepository.findLastApproved(List.of(ID, 2L));
+        archivedBookingRepository.findAllByIdIn(List.of((long) BOOKINGS + 1, (long) BOOKINGS + 2));
+        bookingRepository.findIdsByPhaseAndEndBefore(Phase.PAST, now.minusYears(1), PageRequest.ofSize(1_000));
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemQueriesUseIndexesTest() {
+        itemRepository.findAllByOwnerId(ID, PageRequest.of(0, 10));
+        itemRepository.findAllByRequestId(ID);
+        itemRepository.findByRequest_IdIn(List.of(ID, 2L));
+        commentRepository.findByItemId(ID);
+        commentRepository.findByItemIdIn(List.of(ID, 2L), Sort.by(Sort.Direction.DESC, "created"));
+        itemRequestRepository.findAllByRequesterId(ID, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created")));
+
+        assertNoTableScans();
+    }
+
+    private void assertNoTableScans() {
+        List<String> statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty(), "no statements recorded");
+        List<String> plans = statements.stream()
+                .map(sql -> jdbcTemplate.queryForList("EXPLAIN " + sql).stream()
+                        .flatMap(row -> row.values().stream())
+                        .map(String::valueOf)
+                        .collect(Collectors.joining("\n")))
+                .collect(Collectors.toList());
+        for (String plan : plans) {
+            assertFalse(plan.contains(".tableScan"), "full table scan in plan:\n" + plan);
+            Matcher lookup = INDEX_LOOKUP.matcher(plan);
+            while (lookup.find()) {
+                String index = lookup.group(1);
+                String column = lookup.group(2);
+                if (!index.startsWith("PRIMARY_KEY") && !index.startsWith("IDX_")) {
+                    assertTrue(hasMigrationIndex(index, column),
+                            "no IDX_ index leads with " + column + ", " + index + " exists only in H2:\n" + plan);
+                }
+            }
+        }
+    }
+
+    private boolean hasMigrationIndex(String implicitIndex, String column) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEX_COLUMNS AS c " +
+                "WHERE c.INDEX_NAME LIKE 'IDX\\_%' ESCAPE '\\' AND c.COLUMN_NAME = ? AND c.ORDINAL_POSITION = 1 " +
+                "AND c.TABLE_NAME = (SELECT i.TABLE_NAME FROM INFORMATION_SCHEMA.INDEXES AS i " +
+                "WHERE i.INDEX_NAME = ?)", Long.class, column, implicitIndex) > 0;
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Users, items and requests are read from the second-level cache, and writes through the services
+ * never leave a stale copy behind.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SecondLevelCacheTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private User owner;
+    private Item item;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@cache.test").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userService.getUserById(owner.getId());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void userIsReadFromCacheTest() {
+        assertEquals("Owner", userService.getUserById(owner.getId()).getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void existsByIdIsReadFromQueryCacheTest() {
+        assertTrue(userRepository.existsById(owner.getId()));
+        statistics.clear();
+
+        assertTrue(userRepository.existsById(owner.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updatedUserIsNotStaleTest() {
+        userService.updateUser(owner.getId(), UserDto.builder().name("Renamed").build());
+
+        assertEquals("Renamed", userService.getUserById(owner.getId()).getName());
+    }
+
+    @Test
+    void deletedUserIsNotStaleTest() {
+        assertTrue(userRepository.existsById(owner.getId()));
+        itemRepository.deleteAll();
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(owner.getId()));
+        assertFalse(userRepository.existsById(owner.getId()));
+    }
+
+    @Test
+    void itemOfDeletedOwnerIsNotStaleTest() {
+        assertEquals("Дрель", itemService.getItemById(item.getId(), owner.getId()).getName());
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(item.getId(), owner.getId()));
+        assertFalse(itemRepository.existsById(item.getId()));
+    }
+
+    @Test
+    void updatedItemIsNotStaleTest() {
+        itemService.getItemById(item.getId(), owner.getId());
+
+        itemService.updateItem(ItemShortDto.builder().name("Перфоратор").build(), item.getId(), owner.getId());
+
+        assertEquals("Перфоратор", itemService.getItemById(item.getId(), owner.getId()).getName());
+    }
+}
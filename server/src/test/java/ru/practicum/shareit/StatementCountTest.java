@@ -0,0 +1,214 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each read endpoint issues, so that an association that silently
+ * starts loading row by row fails the build. Bulk creation must insert in JDBC batches.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 5;
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User owner;
+    private User booker;
+    private ItemRequest request;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@statements.test").build());
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("Booker " + i)
+                    .email("booker" + i + "@statements.test")
+                    .build()));
+        }
+        booker = bookers.get(0);
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна дрель")
+                .requester(booker)
+                .created(Timestamp.valueOf(now))
+                .build());
+        for (int i = 0; i < ITEMS; i++) {
+            Item saved = itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Ударная дрель")
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            for (User user : bookers) {
+                booking = saveBooking(saved, user, now.minusDays(10 + bookers.indexOf(user)));
+                saveBooking(saved, user, now.plusDays(10 + bookers.indexOf(user)));
+                commentRepository.save(Comment.builder()
+                        .text("Отличная дрель")
+                        .item(saved)
+                        .author(user)
+                        .created(booking.getEnd())
+                        .build());
+            }
+            item = saved;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bookerBookingsTest() {
+        assertStatements(2, get("/bookings").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void bookerBookingsAfterCursorTest() {
+        assertStatements(2, get("/bookings")
+                .param("after", new BookingCursor(now.plusYears(1), 0L).toString())
+                .header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void ownerBookingsTest() {
+        assertStatements(2, get("/bookings/owner").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void bookingByIdTest() {
+        assertStatements(1, get("/bookings/{id}", booking.getId()).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void bookingsByIdsTest() {
+        List<Booking> bookings = bookingRepository.findAll();
+        String ids = bookings.stream()
+                .limit(20)
+                .map(b -> String.valueOf(b.getId()))
+                .collect(Collectors.joining(","));
+        assertStatements(1, get("/bookings").param("ids", ids).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void ownerItemsTest() {
+        assertStatements(3, get("/items").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void itemByIdTest() {
+        assertStatements(2, get("/items/{id}", item.getId()).header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void searchItemsTest() {
+        assertStatements(3, get("/items/search").param("text", "дрель").header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void requestByIdTest() {
+        assertStatements(2, get("/requests/{id}", request.getId()).header(USER_HEADER, booker.getId()));
+    }
+
+    @Test
+    void otherUsersRequestsTest() {
+        assertStatements(3, get("/requests/all").header(USER_HEADER, owner.getId()));
+    }
+
+    @Test
+    void bulkItemsAreInsertedInBatchesTest() throws Exception {
+        List<ItemShortDto> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(new ItemShortDto(null, "Пила " + i, "Циркулярная пила", true, request.getId()));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(USER_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk());
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        // the request lookup and three insert batches of 50, the owner comes from the second-level cache
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    private Booking saveBooking(Item item, User user, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(Status.APPROVED)
+                .build());
+    }
+
+    @SneakyThrows
+    private void assertStatements(long expected, RequestBuilder request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
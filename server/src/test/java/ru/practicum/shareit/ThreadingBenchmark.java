@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares request handling on the Tomcat worker pool with the virtual thread mode: throughput, p99 latency,
+ * live threads and heap with N clients each keeping one GET /users/{id} in flight.
+ * Not part of the regular build, run it with
+ * {@code mvn test -Dtest=ThreadingBenchmark -Dshareit.benchmark=true [-Dshareit.benchmark.clients=1000,10000]}.
+ * The virtual thread run is skipped on a JVM older than 21, so far only platform thread numbers have been
+ * measured, on JDK 17. Client and server share the process, so 10k clients
+ * need {@code ulimit -n} above 25000.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+public class ThreadingBenchmark {
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        String clients = System.getProperty("shareit.benchmark.clients", "1000,10000");
+        for (String count : clients.split(",")) {
+            run(false, Integer.parseInt(count.trim()));
+            if (Runtime.version().feature() >= 21) {
+                run(true, Integer.parseInt(count.trim()));
+            } else {
+                log.info("{} clients: virtual threads skipped, running on Java {}", count, Runtime.version());
+            }
+        }
+    }
+
+    private void run(boolean virtual, int clients) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles(virtual ? new String[]{"virtual-threads"} : new String[0])
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:threading;DB_CLOSE_DELAY=-1",
+                        "--shareit.threads.virtual=" + virtual,
+                        "--server.tomcat.max-connections=" + (clients * 2),
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit.ThreadingBenchmark=INFO")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("DELETE FROM users");
+            Long userId = jdbcTemplate.queryForObject("SELECT id FROM FINAL TABLE " +
+                    "(INSERT INTO users (name, email) VALUES ('user', 'benchmark@test.com'))", Long.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/users/" + userId);
+
+            Load warmUp = new Load(uri, clients);
+            warmUp.runFor(WARM_UP);
+            Load load = new Load(uri, clients);
+            load.runFor(MEASURE);
+
+            log.info("{} clients, {} threads: {} req/s, p99 {} ms, {} errors, peak {} live threads, {} MB heap",
+                    clients, virtual ? "virtual" : "platform", load.completed.get() / MEASURE.toSeconds(),
+                    load.percentile(0.99), load.errors.get(), load.peakThreads, load.peakHeap / (1024 * 1024));
+        }
+    }
+
+    private static class Load {
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final HttpRequest request;
+        private final int clients;
+        private volatile boolean running = true;
+        private int peakThreads;
+        private long peakHeap;
+
+        Load(URI uri, int clients) {
+            this.request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+            this.clients = clients;
+        }
+
+        void runFor(Duration duration) throws InterruptedException {
+            List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                CompletableFuture<Void> loop = new CompletableFuture<>();
+                send(loop);
+                loops.add(loop);
+            }
+            long deadline = System.nanoTime() + duration.toNanos();
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(200);
+                peakThreads = Math.max(peakThreads, threads.getThreadCount());
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            }
+            running = false;
+            CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).join();
+        }
+
+        private void send(CompletableFuture<Void> loop) {
+            if (!running) {
+                loop.complete(null);
+                return;
+            }
+            long started = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                } else {
+                    completed.incrementAndGet();
+                    latencies.add((System.nanoTime() - started) / 1_000_000);
+                }
+                send(loop);
+            });
+        }
+
+        long percentile(double percentile) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(sorted);
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.round(sorted.size() * percentile)));
+        }
+    }
+}
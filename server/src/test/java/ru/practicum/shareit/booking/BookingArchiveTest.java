@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingArchiveTest {
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final BookingArchive bookingArchive;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking oldest;
+    private Booking old;
+    private Booking recent;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@archive.test").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@archive.test").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+        oldest = saveBooking(now.minusDays(800), Status.APPROVED, Phase.PAST);
+        old = saveBooking(now.minusDays(600), Status.REJECTED, Phase.PAST);
+        recent = saveBooking(now.minusDays(10), Status.APPROVED, Phase.PAST);
+        future = saveBooking(now.plusDays(1), Status.WAITING, Phase.FUTURE);
+        bookingArchive.archive();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        archivedBookingRepository.deleteAllInBatch();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void archiveMovesOldBookingsTest() {
+        assertEquals(List.of(recent.getId(), future.getId()), bookingRepository.findAll().stream()
+                .map(Booking::getId)
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(2, archivedBookingRepository.count());
+
+        bookingArchive.archive();
+
+        assertEquals(2, archivedBookingRepository.count());
+    }
+
+    @Test
+    void listingsSpanArchiveTest() {
+        List<Long> all = List.of(future.getId(), recent.getId(), old.getId(), oldest.getId());
+
+        assertEquals(all, ids(bookingService.getAllBookingByState(booker.getId(), "ALL", PageRequest.of(0, 10))));
+        assertEquals(all, ids(bookingService.getAllOwnersBookingByState(owner.getId(), "ALL", null, 10)));
+        assertEquals(all.subList(0, 2),
+                ids(bookingService.getAllBookingByState(booker.getId(), "ALL", PageRequest.of(0, 2))));
+        assertEquals(all.subList(2, 4),
+                ids(bookingService.getAllOwnersBookingByState(owner.getId(), "ALL", PageRequest.of(1, 2))));
+        assertEquals(all.subList(1, 4),
+                ids(bookingService.getAllBookingByState(booker.getId(), "PAST", PageRequest.of(0, 10))));
+        assertEquals(List.of(old.getId()),
+                ids(bookingService.getAllOwnersBookingByState(owner.getId(), "REJECTED", PageRequest.of(0, 10))));
+        assertEquals(List.of(future.getId()),
+                ids(bookingService.getAllBookingByState(booker.getId(), "FUTURE", null, 10)));
+        assertEquals(all.subList(2, 4), ids(bookingService.getAllBookingByState(booker.getId(), "PAST",
+                new BookingCursor(recent.getStart(), recent.getId()), 10)));
+    }
+
+    @Test
+    void archivedBookingIsFoundByIdTest() {
+        assertEquals(oldest.getId(), bookingService.getBooking(booker.getId(), oldest.getId()).getId());
+        assertEquals(List.of(oldest.getId(), recent.getId()),
+                ids(bookingService.getBookings(owner.getId(), List.of(oldest.getId(), recent.getId()))));
+        assertThrows(NotFoundException.class, () -> bookingService.approveBooking(owner.getId(), old.getId(), true));
+    }
+
+    @Test
+    void archivedBookingsStillCountForItemTest() {
+        bookingRepository.deleteAll();
+
+        CommentDto comment = itemService.addComment(CommentDto.builder().text("Отличная дрель").build(),
+                booker.getId(), item.getId());
+
+        assertEquals(item.getId(), comment.getItemId());
+        assertEquals(oldest.getId(), itemService.getItemById(item.getId(), owner.getId()).getLastBooking().getId());
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+
+    private Booking saveBooking(LocalDateTime start, Status status, Phase phase) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .phase(phase)
+                .build());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAvailabilityIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingAvailabilityIndex availabilityIndex;
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+    private final Long itemId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(bookingRepository.findAllIntervalsByItemIdAndStatusNot(itemId, Status.REJECTED))
+                .thenReturn(List.of(
+                        new BookingShortDto(1L, start, start.plusDays(2), itemId),
+                        new BookingShortDto(2L, start.plusDays(1), start.plusDays(3), itemId),
+                        new BookingShortDto(3L, start.plusDays(10), start.plusDays(11), itemId)));
+    }
+
+    @Test
+    void isBookedTest() {
+        assertTrue(availabilityIndex.isBooked(itemId, start.minusDays(1), start.plusHours(1)));
+        assertTrue(availabilityIndex.isBooked(itemId, start.plusDays(2), start.plusDays(4)));
+        assertTrue(availabilityIndex.isBooked(itemId, start.plusDays(9), start.plusDays(12)));
+        assertFalse(availabilityIndex.isBooked(itemId, start.minusDays(1), start));
+        assertFalse(availabilityIndex.isBooked(itemId, start.plusDays(3), start.plusDays(10)));
+        assertFalse(availabilityIndex.isBooked(itemId, start.plusDays(11), start.plusDays(12)));
+        verify(bookingRepository, times(1)).findAllIntervalsByItemIdAndStatusNot(itemId, Status.REJECTED);
+    }
+
+    @Test
+    void registerAndUnregisterTest() {
+        Booking booking = Booking.builder()
+                .id(4L)
+                .start(start.plusDays(5))
+                .end(start.plusDays(6))
+                .item(Item.builder().id(itemId).build())
+                .status(Status.WAITING)
+                .build();
+        assertFalse(availabilityIndex.isBooked(itemId, start.plusDays(5), start.plusDays(6)));
+
+        availabilityIndex.register(booking);
+        assertTrue(availabilityIndex.isBooked(itemId, start.plusDays(4), start.plusDays(5).plusHours(1)));
+
+        availabilityIndex.unregister(booking);
+        assertFalse(availabilityIndex.isBooked(itemId, start.plusDays(5), start.plusDays(6)));
+        verify(bookingRepository, times(2)).findAllIntervalsByItemIdAndStatusNot(itemId, Status.REJECTED);
+    }
+
+    @Test
+    void endedSegmentsArePrunedTest() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        BookingAvailabilityIndex.ItemSchedule schedule = new BookingAvailabilityIndex.ItemSchedule();
+        schedule.add(now.minusDays(5), now.minusDays(4), now.minusDays(10));
+        schedule.add(now.minusDays(2), now.minusDays(1), now.minusDays(10));
+        schedule.add(now.minusHours(1), now.plusHours(1), now.minusDays(10));
+        schedule.add(now.plusDays(1), now.plusDays(2), now.minusDays(10));
+        assertEquals(4, schedule.size());
+
+        assertTrue(schedule.overlaps(now, now.plusMinutes(30), now));
+        assertEquals(2, schedule.size());
+
+        schedule.add(now.minusDays(3), now.minusDays(2), now.plusDays(3));
+        assertEquals(0, schedule.size());
+    }
+}
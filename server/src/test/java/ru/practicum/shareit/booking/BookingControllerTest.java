@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Status;
@@ -117,6 +118,75 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(List.of(bookingDto)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getAllBookingByStateAfterCursorTest() {
+        BookingDto bookingDto = new BookingDto(1L, start, end, Status.WAITING, null, null);
+        when(bookingService.getAllBookingByState(anyLong(), any(), any(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(bookingDto));
+        String result = mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "ALL")
+                        .param("after", end + ",5")
+                        .param("size", String.valueOf(10)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(bookingDto)), result);
+        verify(bookingService, never()).getAllBookingByState(anyLong(), any(), any(Pageable.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookingByStateWithWrongCursorTest() {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "ALL")
+                        .param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void getByIdsTest() {
+        List<BookingDto> bookings = List.of(new BookingDto(2L, start, end, Status.WAITING, null, null),
+                new BookingDto(1L, start, end, Status.APPROVED, null, null));
+        when(bookingService.getBookings(1L, List.of(2L, 1L))).thenReturn(bookings);
+
+        String result = mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("ids", "2,1"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(bookings), result);
+        verify(bookingService, never()).getAllBookingByState(anyLong(), any(), any(Pageable.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void batchGetTest() {
+        List<BookingDto> bookings = List.of(new BookingDto(2L, start, end, Status.WAITING, null, null),
+                new BookingDto(1L, start, end, Status.APPROVED, null, null));
+        when(bookingService.getBookings(1L, List.of(2L, 1L))).thenReturn(bookings);
+
+        String result = mockMvc.perform(post("/bookings/batch-get")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(2L, 1L))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(bookings), result);
+    }
+
     @SneakyThrows
     @Test
     void approveBookingTest() {
@@ -7,6 +7,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -31,7 +32,7 @@ class BookingMapperTest {
 
         item = new Item(1L, "Item name", "Item description", true, user, null);
 
-        booking = new Booking(1L, start, end, item, user, Status.WAITING);
+        booking = new Booking(1L, start, end, item, user, Status.WAITING, Phase.FUTURE);
     }
 
 
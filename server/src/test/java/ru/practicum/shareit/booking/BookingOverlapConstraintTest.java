@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.PostgresTest;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@PostgresTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingOverlapConstraintTest {
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@overlap.test").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@overlap.test").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void overlappingBookingIsRejectedByDatabaseTest() {
+        bookingRepository.saveAndFlush(booking(start, start.plusDays(2), Status.APPROVED));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingRepository.saveAndFlush(booking(start.plusDays(1), start.plusDays(3), Status.WAITING)));
+    }
+
+    @Test
+    void bookingMadeByAnotherInstanceIsConflictTest() {
+        // loads the item's schedule into this instance's index
+        bookingService.addBooking(booker.getId(), new BookingShortDto(null, start, start.plusDays(1), item.getId()));
+        // another instance books the next days, this instance's index does not know about it
+        jdbcTemplate.update("INSERT INTO bookings (item_id, booker_id, start_date, end_date, status) " +
+                "VALUES (?, ?, ?, ?, 'WAITING')", item.getId(), booker.getId(),
+                Timestamp.valueOf(start.plusDays(2)), Timestamp.valueOf(start.plusDays(4)));
+
+        assertThrows(NotAvailableException.class, () -> bookingService.addBooking(booker.getId(),
+                new BookingShortDto(null, start.plusDays(3), start.plusDays(5), item.getId())));
+        assertEquals(2, bookingRepository.count());
+    }
+
+    @Test
+    void rejectedAndAdjacentBookingsDoNotConflictTest() {
+        Booking rejected = bookingRepository.saveAndFlush(booking(start, start.plusDays(2), Status.WAITING));
+        jdbcTemplate.update("UPDATE bookings SET status = 'REJECTED' WHERE id = ?", rejected.getId());
+
+        bookingRepository.saveAndFlush(booking(start, start.plusDays(2), Status.APPROVED));
+        bookingRepository.saveAndFlush(booking(start.plusDays(2), start.plusDays(3), Status.WAITING));
+
+        assertEquals(3, bookingRepository.count());
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "UPDATE bookings SET status = 'WAITING' WHERE id = ?", rejected.getId()));
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
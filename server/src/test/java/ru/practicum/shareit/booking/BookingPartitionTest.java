@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.PostgresTest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@PostgresTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingPartitionTest {
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final BookingArchive bookingArchive;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@partition.test").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@partition.test").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedBookingRepository.deleteAllInBatch();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bookingsArePartitionedByMonthTest() {
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE relname = 'bookings'", String.class));
+        for (int i = 0; i <= 3; i++) {
+            assertNotNull(partition(now.plusMonths(i)));
+        }
+
+        long id = insertBooking(now.plusDays(1));
+
+        assertEquals(partitionName(now.plusDays(1)), partitionOf(id));
+    }
+
+    @Test
+    void archiveEmptiesAndDropsOldPartitionsTest() {
+        LocalDateTime start = now.minusDays(800);
+        long id = insertBooking(start);
+        assertEquals("bookings_default", partitionOf(id));
+
+        assertTrue(jdbcTemplate.queryForObject("SELECT create_bookings_partition(?)", Boolean.class,
+                Timestamp.valueOf(start)));
+        assertEquals(partitionName(start), partitionOf(id));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM booking_slots WHERE booking_id = ?", Integer.class, id));
+
+        bookingArchive.archive();
+
+        assertFalse(bookingRepository.existsById(id));
+        assertTrue(archivedBookingRepository.existsById(id));
+        assertNull(partition(start));
+        assertNotNull(partition(now.plusMonths(3)));
+    }
+
+    @Test
+    void bookingAlreadyInArchiveIsNotCopiedAgainTest() {
+        long id = insertBooking(now.minusDays(800));
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, item_id, booker_id, start_date, end_date, status) " +
+                "SELECT id, item_id, booker_id, start_date, end_date, status FROM bookings WHERE id = ?", id);
+
+        bookingArchive.archive();
+
+        assertFalse(bookingRepository.existsById(id));
+        assertEquals(1, archivedBookingRepository.count());
+    }
+
+    @Test
+    void archiveIsSkippedWhileAnotherInstanceRunsItTest() throws Exception {
+        long id = insertBooking(now.minusDays(800));
+        try (Connection otherInstance = dataSource.getConnection()) {
+            JdbcTemplate other = new JdbcTemplate(new SingleConnectionDataSource(otherInstance, true));
+            assertTrue(other.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class,
+                    BookingArchive.LOCK_KEY));
+
+            bookingArchive.archive();
+            assertTrue(bookingRepository.existsById(id));
+
+            other.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, BookingArchive.LOCK_KEY);
+        }
+
+        bookingArchive.archive();
+        assertFalse(bookingRepository.existsById(id));
+    }
+
+    private long insertBooking(LocalDateTime start) {
+        return jdbcTemplate.queryForObject("INSERT INTO bookings (item_id, booker_id, start_date, end_date, status, " +
+                        "phase) VALUES (?, ?, ?, ?, 'APPROVED', ?) RETURNING id", Long.class, item.getId(),
+                booker.getId(), Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                start.isBefore(now) ? "PAST" : "FUTURE");
+    }
+
+    private String partitionOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE id = ?",
+                String.class, id);
+    }
+
+    private String partition(LocalDateTime month) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partitionName(month));
+    }
+
+    private static String partitionName(LocalDateTime month) {
+        return "bookings_" + month.format(PARTITION_MONTH);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingPhaseSchedulerTest {
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final BookingPhaseScheduler bookingPhaseScheduler;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("owner@phases.test").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@phases.test").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+        // saved as if the scheduler had not run since all three were booked
+        past = saveBooking(now.minusDays(3), now.minusDays(2));
+        current = saveBooking(now.minusDays(1), now.plusDays(1));
+        future = saveBooking(now.plusDays(1), now.plusDays(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void advanceMovesBookingsToTheirPhaseTest() {
+        bookingPhaseScheduler.advance();
+
+        assertEquals(Phase.PAST, bookingRepository.findById(past.getId()).orElseThrow().getPhase());
+        assertEquals(Phase.CURRENT, bookingRepository.findById(current.getId()).orElseThrow().getPhase());
+        assertEquals(Phase.FUTURE, bookingRepository.findById(future.getId()).orElseThrow().getPhase());
+    }
+
+    @Test
+    void lateBookingsAreListedByDatesTest() {
+        for (int run = 0; run < 2; run++) {
+            assertEquals(List.of(past.getId()), ids(State.PAST));
+            assertEquals(List.of(current.getId()), ids(State.CURRENT));
+            assertEquals(List.of(future.getId()), ids(State.FUTURE));
+            bookingPhaseScheduler.advance();
+        }
+    }
+
+    @Test
+    void newBookingsGetTheirPhaseOnSaveTest() {
+        Booking saved = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(now.minusDays(1))
+                .end(now.plusDays(3))
+                .status(Status.WAITING)
+                .build());
+
+        assertEquals(Phase.CURRENT, saved.getPhase());
+    }
+
+    private List<Long> ids(State state) {
+        List<BookingDto> bookings = bookingService.getAllBookingByState(booker.getId(), state.name(),
+                PageRequest.of(0, 10));
+        List<BookingDto> ownerBookings = bookingService.getAllOwnersBookingByState(owner.getId(), state.name(),
+                null, 10);
+        assertEquals(bookings.stream().map(BookingDto::getId).collect(Collectors.toList()),
+                ownerBookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+
+    private Booking saveBooking(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(Status.APPROVED)
+                .phase(Phase.FUTURE)
+                .build());
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private Item item;
+    private List<User> bookers;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("concurrency-owner@test.com")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Concurrency drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("Booker " + i)
+                    .email("concurrency-booker" + i + "@test.com")
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllById(bookingRepository.findAllByItemOwnerId(item.getOwner().getId(),
+                Pageable.unpaged()).stream().map(BookingDto::getId).collect(Collectors.toList()));
+        itemRepository.delete(item);
+        userRepository.deleteAll(bookers);
+        userRepository.delete(item.getOwner());
+    }
+
+    @Test
+    void concurrentOverlappingBookingsNeverOverlapTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (User booker : bookers) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDateTime bookingStart = start.plusHours(attempt);
+                    BookingShortDto shortDto = new BookingShortDto(null, bookingStart,
+                            bookingStart.plusHours(2), item.getId());
+                    try {
+                        bookingService.addBooking(booker.getId(), shortDto);
+                        admitted.incrementAndGet();
+                    } catch (NotAvailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<BookingShortDto> intervals = bookingRepository.findAllIntervalsByItemIdAndStatusNot(item.getId(),
+                Status.REJECTED);
+        for (int i = 0; i < intervals.size(); i++) {
+            for (int j = i + 1; j < intervals.size(); j++) {
+                BookingShortDto first = intervals.get(i);
+                BookingShortDto second = intervals.get(j);
+                boolean overlaps = first.getStart().isBefore(second.getEnd())
+                        && second.getStart().isBefore(first.getEnd());
+                assertFalse(overlaps, "Bookings " + first.getId() + " and " + second.getId() + " overlap");
+            }
+        }
+        assertEquals(admitted.get(), intervals.size());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, admitted.get() + rejected.get());
+    }
+}
@@ -8,26 +8,31 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @Transactional
 @AutoConfigureTestDatabase
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingServiceIntegrationTest {
-    private LocalDateTime now = LocalDateTime.now();
+    private LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
     private final UserRepository userRepository;
     private final BookingService bookingService;
     private final ItemRepository itemRepository;
@@ -72,7 +77,6 @@ public class BookingServiceIntegrationTest {
         savedItem = itemRepository.save(item);
 
         booking = Booking.builder()
-                .id(1L)
                 .start(now.plusDays(1))
                 .end(now.plusDays(2))
                 .item(savedItem)
@@ -83,7 +87,6 @@ public class BookingServiceIntegrationTest {
         savedBooking = bookingRepository.save(booking);
 
         altBooking = Booking.builder()
-                .id(5L)
                 .start(now.minusDays(3))
                 .end(now.minusDays(5))
                 .item(savedItem)
@@ -94,6 +97,37 @@ public class BookingServiceIntegrationTest {
         savedAltBooking = bookingRepository.save(altBooking);
     }
 
+    @Test
+    public void getBookingsTest() {
+        List<Long> ids = List.of(savedAltBooking.getId(), savedBooking.getId(), savedAltBooking.getId());
+
+        List<BookingDto> ownerBookings = bookingService.getBookings(savedUser.getId(), ids);
+        List<BookingDto> bookerBookings = bookingService.getBookings(savedAltUser.getId(), ids);
+
+        assertEquals(ids, ownerBookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(ids, bookerBookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(new BookingDto.Booker(savedAltUser.getId(), savedAltUser.getName()),
+                ownerBookings.get(1).getBooker());
+        assertEquals(new BookingDto.Item(savedItem.getId(), savedItem.getName()), ownerBookings.get(1).getItem());
+        assertEquals(savedBooking.getStart(), ownerBookings.get(1).getStart());
+        assertEquals(List.of(), bookingService.getBookings(savedUser.getId(), List.of()));
+    }
+
+    @Test
+    public void getBookingsOfOtherUserTest() {
+        User stranger = userRepository.save(User.builder().name("Stranger").email("stranger@test.com").build());
+        List<Long> ids = List.of(savedBooking.getId());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookings(stranger.getId(), ids));
+    }
+
+    @Test
+    public void getBookingsWithUnknownIdTest() {
+        List<Long> ids = List.of(savedBooking.getId(), Long.MAX_VALUE);
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookings(savedUser.getId(), ids));
+    }
+
     @Test
     public void getAllOwnersBookingByStateTest() {
         long userId = savedUser.getId();
@@ -108,9 +142,45 @@ public class BookingServiceIntegrationTest {
         assertEquals(savedAltBooking.getId(), bookingDtoList.get(1).getId());
         assertEquals(savedBooking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(savedBooking.getEnd(), bookingDtoList.get(0).getEnd());
+        assertEquals(new BookingDto.Booker(savedAltUser.getId(), savedAltUser.getName()),
+                bookingDtoList.get(0).getBooker());
+        assertEquals(new BookingDto.Item(savedItem.getId(), savedItem.getName()), bookingDtoList.get(0).getItem());
         assertEquals(savedAltBooking.getStart(), bookingDtoList.get(1).getStart());
         assertEquals(savedAltBooking.getEnd(), bookingDtoList.get(1).getEnd());
     }
 
+    @Test
+    public void getAllOwnersBookingByStateAfterCursorTest() {
+        long userId = savedUser.getId();
+        List<BookingDto> firstPage = bookingService.getAllOwnersBookingByState(userId, String.valueOf(State.ALL),
+                null, 1);
+
+        assertEquals(1, firstPage.size());
+        assertEquals(savedBooking.getId(), firstPage.get(0).getId());
+
+        BookingCursor after = new BookingCursor(firstPage.get(0).getStart(), firstPage.get(0).getId());
+        List<BookingDto> secondPage = bookingService.getAllOwnersBookingByState(userId, String.valueOf(State.ALL),
+                after, 10);
+
+        assertEquals(1, secondPage.size());
+        assertEquals(savedAltBooking.getId(), secondPage.get(0).getId());
+        assertEquals(savedAltUser.getName(), secondPage.get(0).getBooker().getName());
+        assertEquals(savedItem.getName(), secondPage.get(0).getItem().getName());
+    }
+
+    @Test
+    public void getAllBookingByStateAfterCursorTest() {
+        long userId = savedAltUser.getId();
+        BookingDto futureBooking = bookingService.getAllBookingByState(userId, String.valueOf(State.FUTURE),
+                null, 1).get(0);
+        BookingCursor after = new BookingCursor(futureBooking.getStart(), futureBooking.getId());
+        List<BookingDto> pastBookings = bookingService.getAllBookingByState(userId, String.valueOf(State.PAST),
+                after, 10);
+
+        assertEquals(1, pastBookings.size());
+        assertEquals(savedAltBooking.getId(), pastBookings.get(0).getId());
+        assertEquals(0, bookingService.getAllBookingByState(userId, String.valueOf(State.FUTURE), after, 10).size());
+    }
+
 
 }
@@ -21,6 +21,8 @@ import ru.practicum.shareit.booking.model.State;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,6 +38,14 @@ public class BookingServiceTest {
     ItemRepository itemRepository;
     @Mock
     BookingRepository bookingRepository;
+    @Mock
+    ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    BookingArchive bookingArchive;
+    @Mock
+    BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    ItemBookingLocks itemBookingLocks;
 
     @Mock
     private UserRepository userRepository;
@@ -85,11 +95,25 @@ public class BookingServiceTest {
         BookingShortDto shortDto = new BookingShortDto(userWithBooking.getId(), start, end, item.getId());
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(userRepository.findById(userWithBooking.getId())).thenReturn(Optional.of(userWithBooking));
-        when(bookingRepository.save(any()))
+        when(bookingRepository.saveAndFlush(any()))
                 .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
         BookingDto bookingdto = bookingService.addBooking(userWithBooking.getId(), shortDto);
 
         assertThat(bookingdto).hasFieldOrProperty("id");
+        verify(availabilityIndex, times(1)).register(any());
+    }
+
+    @Test
+    void createBookingWithBookedDatesTest() {
+        Long userId = userWithBooking.getId();
+        Long itemId = item.getId();
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(userRepository.findById(any())).thenReturn(Optional.of(userWithBooking));
+        when(availabilityIndex.isBooked(itemId, start, end)).thenReturn(true);
+        BookingShortDto shortDto = new BookingShortDto(userId, start, end, itemId);
+
+        assertThrows(NotAvailableException.class, () -> bookingService.addBooking(userId, shortDto));
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -178,7 +202,7 @@ public class BookingServiceTest {
         Long userId = userWithBooking.getId();
         String state = String.valueOf(State.ALL);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerId(anyLong(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllOwnersBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -190,8 +214,8 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.CURRENT);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(anyLong(), any(), any()))
+                .thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllOwnersBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -203,7 +227,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.PAST);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllOwnersBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -215,7 +239,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.FUTURE);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllOwnersBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -228,7 +252,7 @@ public class BookingServiceTest {
         String state = String.valueOf(State.WAITING);
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllOwnersBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -241,7 +265,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.REJECTED);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllOwnersBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -273,7 +297,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.ALL);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -285,8 +309,8 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.CURRENT);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(), any()))
+                .thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -298,7 +322,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.PAST);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -311,7 +335,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.FUTURE);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -323,7 +347,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.WAITING);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -335,7 +359,7 @@ public class BookingServiceTest {
         Long userId = user.getId();
         String state = String.valueOf(State.REJECTED);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.bookToDto(booking)));
         List<BookingDto> result = bookingService.getAllBookingByState(userId, state,
                 PageRequest.of(0, 10));
 
@@ -386,6 +410,7 @@ public class BookingServiceTest {
         bookingDto.setStatus(Status.REJECTED);
 
         assertEquals(bookingDto.getStatus(), bookingDtoActual.getStatus());
+        verify(availabilityIndex, times(1)).unregister(booking);
     }
 
     @Test
@@ -406,4 +431,38 @@ public class BookingServiceTest {
         assertThrows(NotAvailableException.class, () -> bookingService.approveBooking(userId,
                 bookingId, false));
     }
+
+    @Test
+    void getBookingsOverLimitTest() {
+        List<Long> ids = LongStream.rangeClosed(1, BookingServiceImpl.MAX_BOOKING_IDS + 1).boxed()
+                .collect(Collectors.toList());
+
+        assertThrows(ValidationException.class, () -> bookingService.getBookings(user.getId(), ids));
+        verifyNoInteractions(bookingRepository, archivedBookingRepository);
+    }
+
+    @Test
+    void getAllBookingByStateDeepIntoArchiveTest() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of());
+        when(archivedBookingRepository.findAllByBookerId(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.bookToDto(booking)));
+        PageRequest page = PageRequest.of(BookingServiceImpl.MAX_ARCHIVE_MERGE_ROWS / 10, 10);
+
+        assertThrows(ValidationException.class, () -> bookingService.getAllBookingByState(user.getId(), "ALL", page));
+        verify(archivedBookingRepository).findAllByBookerId(eq(user.getId()), argThat(p -> p.getPageSize() == 1));
+    }
+
+    @Test
+    void getAllBookingByStateDeepWithoutArchiveTest() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findAllByBookerId(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.bookToDto(booking)));
+        when(archivedBookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of());
+
+        List<BookingDto> result = bookingService.getAllBookingByState(user.getId(), "ALL",
+                PageRequest.of(Integer.MAX_VALUE / 10, 10));
+
+        assertEquals(1, result.size());
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,16 +15,24 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -31,6 +40,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @AutoConfigureMockMvc
 @WebMvcTest(ItemController.class)
+@Import(ItemImporter.class)
 class ItemControllerTest {
 
     @Autowired
@@ -85,6 +95,176 @@ class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(itemDto), result);
     }
 
+    @Test
+    public void addItemsTest() throws Exception {
+        when(itemService.addItems(any(), anyLong())).thenReturn(List.of(itemDto));
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(itemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].name", is(itemDto.getName())));
+    }
+
+    @Test
+    public void importItemsTest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenReturn(List.of(ItemImportResult.created(itemDto)));
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(itemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].item.id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].item.name", is(itemDto.getName())));
+    }
+
+    @Test
+    public void importItemsAsNdjsonTest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            return rows.stream().map(row -> ItemImportResult.created(itemDto)).collect(Collectors.toList());
+        });
+        String rows = objectMapper.writeValueAsString(itemDto) + "\n"
+                + "{\"name\":\"Пила\",\"available\":\"maybe\"}\n"
+                + "null\n"
+                + objectMapper.writeValueAsString(itemDto) + "\n";
+
+        String result = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(rows))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<ItemImportResult> results = new ArrayList<>();
+        for (String line : result.split("\n")) {
+            results.add(objectMapper.readValue(line, ItemImportResult.class));
+        }
+        assertEquals(4, results.size());
+        assertEquals(List.of(0L, 1L, 2L, 3L),
+                results.stream().map(ItemImportResult::getIndex).collect(Collectors.toList()));
+        assertEquals(itemDto.getName(), results.get(0).getItem().getName());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertEquals(itemDto.getName(), results.get(3).getItem().getName());
+    }
+
+    @Test
+    public void importItemsInChunksTest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            return rows.stream().map(row -> ItemImportResult.created(itemDto)).collect(Collectors.toList());
+        });
+        List<ItemDto> items = Collections.nCopies(ItemImporter.CHUNK_SIZE + 1, itemDto);
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ItemImporter.CHUNK_SIZE + 1)))
+                .andExpect(jsonPath("$[" + ItemImporter.CHUNK_SIZE + "].index", is(ItemImporter.CHUNK_SIZE)));
+
+        verify(itemService, times(2)).importItems(any(), anyLong());
+    }
+
+    @Test
+    public void importItemsWithRejectedRowsAcrossChunksTest() throws Exception {
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            chunkSizes.add(rows.size());
+            return rows.stream().map(row -> ItemImportResult.created(itemDto)).collect(Collectors.toList());
+        });
+        String item = objectMapper.writeValueAsString(itemDto);
+        String items = "[" + item + ",{\"name\":\"Пила\",\"available\":\"maybe\"},"
+                + String.join(",", Collections.nCopies(ItemImporter.CHUNK_SIZE - 2, item)) + ",null,"
+                + String.join(",", Collections.nCopies(10, item)) + "]";
+
+        String result = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(items))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<ItemImportResult> results = List.of(objectMapper.readValue(result, ItemImportResult[].class));
+        assertEquals(ItemImporter.CHUNK_SIZE + 11, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(ItemImporter.CHUNK_SIZE).getError());
+        assertEquals(itemDto.getName(), results.get(ItemImporter.CHUNK_SIZE - 1).getItem().getName());
+        assertEquals(itemDto.getName(), results.get(ItemImporter.CHUNK_SIZE + 1).getItem().getName());
+        assertEquals(List.of(ItemImporter.CHUNK_SIZE - 1, 10), chunkSizes);
+    }
+
+    @Test
+    public void importItemsWithMalformedJsonTest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenReturn(List.of());
+        String result = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content("[{\"name\": "))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<ItemImportResult> results = List.of(objectMapper.readValue(result, ItemImportResult[].class));
+        assertEquals(1, results.size());
+        assertEquals(0, results.get(0).getIndex());
+        assertTrue(results.get(0).getError().contains("импорт остановлен"));
+        verify(itemService).importItems(any(), anyLong());
+    }
+
+    @Test
+    public void importItemsWithMalformedJsonAfterFirstChunkTest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            return rows.stream().map(row -> ItemImportResult.created(itemDto)).collect(Collectors.toList());
+        });
+        String items = objectMapper.writeValueAsString(Collections.nCopies(ItemImporter.CHUNK_SIZE + 1, itemDto));
+        String truncated = items.substring(0, items.length() - 1) + ",{\"name\": ";
+
+        String result = mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(truncated))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<ItemImportResult> results = List.of(objectMapper.readValue(result, ItemImportResult[].class));
+        assertEquals(ItemImporter.CHUNK_SIZE + 2, results.size());
+        assertEquals(itemDto.getName(), results.get(ItemImporter.CHUNK_SIZE).getItem().getName());
+        ItemImportResult last = results.get(ItemImporter.CHUNK_SIZE + 1);
+        assertEquals(ItemImporter.CHUNK_SIZE + 1, last.getIndex());
+        assertTrue(last.getError().contains("импорт остановлен"));
+        verify(itemService, times(2)).importItems(any(), anyLong());
+    }
+
+    @Test
+    public void importItemsWithWrongUserTest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenThrow(new NotFoundException("The user doesn't exist"));
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 999)
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void shouldNotAddItemWitWrongUserTest() throws Exception {
         when(itemService.addItem(any(), anyLong())).thenThrow(new NotFoundException("The user doesn't exist"));
@@ -8,14 +8,21 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +44,9 @@ public class ItemServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
     private User user;
     private ItemDto itemDtoOne;
     private ItemDto itemDtoAnother;
@@ -94,6 +104,132 @@ public class ItemServiceIntegrationTest {
         assertEquals(itemDtoAnother.getName(), itemDtoList.get(1).getName());
     }
 
+    @Test
+    void getAllItemsWithLastAndNextBookingsTest() {
+        userRepository.save(user);
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@test.com").build());
+        ItemDto first = service.addItem(new ItemShortDto(null, "Дрель", "Ударная дрель", true, null), user.getId());
+        ItemDto second = service.addItem(new ItemShortDto(null, "Пила", "Циркулярная пила", true, null),
+                user.getId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking firstLast = saveBooking(first, booker, now.minusDays(5), Status.APPROVED);
+        saveBooking(first, booker, now.minusDays(10), Status.APPROVED);
+        Booking firstNext = saveBooking(first, booker, now.plusDays(2), Status.APPROVED);
+        saveBooking(first, booker, now.plusDays(4), Status.APPROVED);
+        saveBooking(first, booker, now.plusDays(1), Status.REJECTED);
+        Booking secondLast = saveBooking(second, booker, now.minusDays(1), Status.APPROVED);
+        Booking secondNext = saveBooking(second, booker, now.plusDays(7), Status.APPROVED);
+
+        List<ItemDto> items = service.getAllItems(user.getId(), PageRequest.of(0, 10));
+
+        assertEquals(2, items.size());
+        assertEquals(firstLast.getId(), items.get(0).getLastBooking().getId());
+        assertEquals(firstNext.getId(), items.get(0).getNextBooking().getId());
+        assertEquals(booker.getId(), items.get(0).getNextBooking().getBookerId());
+        assertEquals(now.plusDays(2), items.get(0).getNextBooking().getStart());
+        assertEquals(secondLast.getId(), items.get(1).getLastBooking().getId());
+        assertEquals(secondNext.getId(), items.get(1).getNextBooking().getId());
+    }
+
+    @Test
+    void addItemsTest() {
+        userRepository.save(user);
+        ItemShortDto first = new ItemShortDto(null, "Дрель", "Ударная дрель", true, null);
+        ItemShortDto second = new ItemShortDto(null, "Пила", "Циркулярная пила", false, null);
+
+        List<ItemDto> items = service.addItems(List.of(first, second), user.getId());
+
+        assertEquals(2, items.size());
+        assertEquals("Пила", items.get(1).getName());
+        assertEquals(user.getId(), items.get(1).getOwner().getId());
+        assertEquals(2, service.getAllItems(user.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void addItemsWithExistingIdTest() {
+        User owner = userRepository.save(user);
+        User other = userRepository.save(User.builder().name("Other").email("other@test.com").build());
+        Item existing = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(other)
+                .build());
+        ItemShortDto withId = new ItemShortDto(existing.getId(), "Пила", "Циркулярная пила", true, null);
+
+        List<ItemDto> items = service.addItems(List.of(withId), owner.getId());
+
+        assertNotEquals(existing.getId(), items.get(0).getId());
+        Item unchanged = itemRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("Дрель", unchanged.getName());
+        assertEquals(other.getId(), unchanged.getOwner().getId());
+    }
+
+    @Test
+    void addItemsWithUnknownRequestTest() {
+        userRepository.save(user);
+
+        assertThrows(NotFoundException.class, () -> service.addItems(List.of(itemShortDto), user.getId()));
+    }
+
+    @Test
+    void importItemsTest() {
+        userRepository.save(user);
+        ItemShortDto first = new ItemShortDto(null, "Дрель", "Ударная дрель", true, null);
+        ItemShortDto second = new ItemShortDto(null, "Пила", "Циркулярная пила", false, null);
+
+        List<ItemImportResult> results = service.importItems(List.of(first, second), user.getId());
+
+        assertEquals(2, results.size());
+        assertEquals("Пила", results.get(1).getItem().getName());
+        assertEquals(user.getId(), results.get(1).getItem().getOwner().getId());
+        assertNull(results.get(1).getError());
+        assertEquals(2, service.getAllItems(user.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void importItemsWithUnknownRequestTest() {
+        userRepository.save(user);
+
+        List<ItemImportResult> results = service.importItems(List.of(itemShortDto), user.getId());
+
+        assertNull(results.get(0).getItem());
+        assertNotNull(results.get(0).getError());
+        assertEquals(0, service.getAllItems(user.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void importItemsRejectsInvalidRowsOnlyTest() {
+        userRepository.save(user);
+        ItemShortDto blankName = new ItemShortDto(null, " ", "Ударная дрель", true, null);
+        ItemShortDto noAvailability = new ItemShortDto(null, "Дрель", "Ударная дрель", null, null);
+        ItemShortDto valid = new ItemShortDto(99L, "Пила", "Циркулярная пила", true, null);
+
+        List<ItemImportResult> results = service.importItems(List.of(blankName, valid, noAvailability), user.getId());
+
+        assertEquals(3, results.size());
+        assertNotNull(results.get(0).getError());
+        assertEquals("Пила", results.get(1).getItem().getName());
+        assertNotEquals(99L, results.get(1).getItem().getId());
+        assertNotNull(results.get(2).getError());
+        assertEquals(1, service.getAllItems(user.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void importItemsWithUnknownOwnerTest() {
+        assertThrows(NotFoundException.class, () -> service.importItems(List.of(itemShortDto), 999L));
+    }
+
+    private Booking saveBooking(ItemDto item, User booker, LocalDateTime start, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .item(itemRepository.findById(item.getId()).orElseThrow())
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .build());
+    }
+
     @Test
     void getItemByIdTest() {
         userRepository.save(user);
@@ -126,6 +262,28 @@ public class ItemServiceIntegrationTest {
         assertEquals(itemDtoOne.getDescription(), item.getDescription());
     }
 
+    @Test
+    void searchItemByTextTest() {
+        userRepository.save(user);
+        ItemDto drill = service.addItem(new ItemShortDto(null, "Аккумуляторная дрель",
+                "Дрель с двумя аккумуляторами", true, null), user.getId());
+        ItemDto screwdriver = service.addItem(new ItemShortDto(null, "Отвёртка", "Крестовая отвёртка", true, null),
+                user.getId());
+        ItemDto hiddenDrill = service.addItem(new ItemShortDto(null, "Дрель", "Сломанная дрель", true, null),
+                user.getId());
+        service.updateItem(new ItemShortDto(null, null, null, false, null), hiddenDrill.getId(), user.getId());
+        // the search index takes committed changes only
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        List<ItemDto> found = service.searchItemByText("ЕЛЬ", PageRequest.of(0, 10));
+
+        assertEquals(1, found.size());
+        assertEquals(drill.getId(), found.get(0).getId());
+        assertEquals(screwdriver.getId(), service.searchItemByText("ёр", PageRequest.of(0, 10)).get(0).getId());
+        assertTrue(service.searchItemByText("дрель аккум", PageRequest.of(0, 10)).isEmpty());
+    }
+
     @Test
     void createNewItemWithIncorrectUserTest() {
         assertThrows(NotFoundException.class, () -> service.addItem(itemShortDto, 9999L));
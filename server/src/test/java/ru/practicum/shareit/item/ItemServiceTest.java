@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.BookingRepository;
 
 import ru.practicum.shareit.booking.model.Booking;
@@ -20,6 +21,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
 
 import ru.practicum.shareit.request.ItemRequestRepository;
 
@@ -49,9 +51,13 @@ public class ItemServiceTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearch itemSearch;
     @InjectMocks
     private ItemServiceImpl itemService;
     private User user;
@@ -221,8 +227,7 @@ public class ItemServiceTest {
 
     @Test
     void searchItemByTextTest() {
-        when(itemRepository.findByNameOrDescriptionAndAvailable("text",
-        Pageable.unpaged())).thenReturn(List.of(item));
+        when(itemSearch.search("text", Pageable.unpaged())).thenReturn(List.of(item));
         List<ItemDto> expectedDtoList = List.of(ItemMapper.itemToDto(item));
         List<ItemDto> actualDtoList = itemService.searchItemByText("text", Pageable.unpaged());
 
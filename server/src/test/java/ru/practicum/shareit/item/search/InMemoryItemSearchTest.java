@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearch itemSearch;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        items = List.of(
+                Item.builder().id(1L).name("Drill").description("Cordless drill").available(true).build(),
+                Item.builder().id(2L).name("Drilling rig").description("Heavy").available(true).build(),
+                Item.builder().id(3L).name("Screwdriver").description("Cordless").available(true).build(),
+                Item.builder().id(4L).name("Drill").description("Broken").available(false).build());
+        items.forEach(itemSearch::index);
+        lenient().when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Long> idList = new ArrayList<>();
+            ids.forEach(idList::add);
+            return items.stream().filter(item -> idList.contains(item.getId())).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void searchRanksExactMatchesFirstTest() {
+        List<Item> found = itemSearch.search("dril", Pageable.unpaged());
+
+        assertEquals(List.of(1L, 2L), ids(found));
+        assertEquals(List.of(1L, 2L), ids(itemSearch.search("drill", Pageable.unpaged())));
+        assertEquals(List.of(2L), ids(itemSearch.search("drill", PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void searchMatchesAllTokensTest() {
+        assertEquals(List.of(1L), ids(itemSearch.search("cordless DRILL", Pageable.unpaged())));
+        assertEquals(List.of(3L), ids(itemSearch.search("screw", Pageable.unpaged())));
+        assertTrue(itemSearch.search("river", Pageable.unpaged()).isEmpty());
+        assertTrue(itemSearch.search("  ", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void removeAndReindexTest() {
+        itemSearch.remove(items.get(0));
+        assertEquals(List.of(2L), ids(itemSearch.search("drill", Pageable.unpaged())));
+
+        items.get(1).setAvailable(false);
+        itemSearch.index(items.get(1));
+        assertTrue(itemSearch.search("drill", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void staleCandidatesDoNotShortenPagesTest() {
+        // item 1 became unavailable in the database but the index has not seen it yet
+        items.get(0).setAvailable(false);
+
+        assertEquals(List.of(2L), ids(itemSearch.search("drill", PageRequest.of(0, 1))));
+        assertTrue(itemSearch.search("drill", PageRequest.of(1, 1)).isEmpty());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
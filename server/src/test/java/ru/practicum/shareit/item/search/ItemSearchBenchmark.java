@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the LIKE query with the in-process search engines on a synthetic catalogue.
+ * Not part of the regular build, run it with
+ * {@code mvn test -Dtest=ItemSearchBenchmark -Dshareit.benchmark=true [-Dshareit.benchmark.items=100000,1000000]}.
+ * A million items needs a larger heap than the surefire default, add {@code -DargLine=-Xmx6g}.
+ * The PostgreSQL pg_trgm path needs a live database and is measured with EXPLAIN ANALYZE instead.
+ */
+@Slf4j
+@SpringBootTest(properties = "shareit.search.engine=like")
+@AutoConfigureTestDatabase
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera",
+            "tripod", "projector", "speaker", "cordless", "electric", "heavy", "compact", "folding", "portable",
+            "professional", "garden", "winter"};
+    private static final List<String> QUERIES = List.of("ill", "cordless", "rofess", "tent", "zzz", "er");
+    private static final int BATCH = 10_000;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void compareSearchEngines() {
+        String sizes = System.getProperty("shareit.benchmark.items", "100000,1000000");
+        for (String size : sizes.split(",")) {
+            run(Integer.parseInt(size.trim()));
+        }
+    }
+
+    private void run(int itemCount) {
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM users");
+        Long ownerId = jdbcTemplate.queryForObject("SELECT id FROM FINAL TABLE " +
+                "(INSERT INTO users (name, email) VALUES ('owner', 'benchmark@test.com'))", Long.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < itemCount; i++) {
+            batch.add(new Object[]{phrase(random, 2), phrase(random, 6), random.nextInt(10) > 0, ownerId});
+            if (batch.size() == BATCH || i == itemCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) " +
+                        "VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        LikeItemSearch like = new LikeItemSearch(itemRepository);
+        TrigramItemSearch trigram = new TrigramItemSearch(itemRepository);
+        InMemoryItemSearch words = new InMemoryItemSearch(itemRepository);
+        long started = System.nanoTime();
+        trigram.rebuild();
+        log.info("{} items: trigram index built in {} ms", itemCount, (System.nanoTime() - started) / 1_000_000);
+        started = System.nanoTime();
+        words.rebuild();
+        log.info("{} items: word index built in {} ms", itemCount, (System.nanoTime() - started) / 1_000_000);
+
+        Map<String, ItemSearch> engines = new LinkedHashMap<>();
+        engines.put("like", like);
+        engines.put("trigram", trigram);
+        engines.put("memory", words);
+        Pageable page = PageRequest.of(0, 20);
+        for (Map.Entry<String, ItemSearch> engine : engines.entrySet()) {
+            QUERIES.forEach(query -> engine.getValue().search(query, page));
+            long total = 0;
+            for (int run = 0; run < RUNS; run++) {
+                for (String query : QUERIES) {
+                    long start = System.nanoTime();
+                    engine.getValue().search(query, page);
+                    total += System.nanoTime() - start;
+                }
+            }
+            log.info("{} items: {} search {} us/query", itemCount, engine.getKey(),
+                    total / 1_000 / (RUNS * QUERIES.size()));
+        }
+    }
+
+    private static String phrase(Random random, int words) {
+        String[] phrase = new String[words];
+        Arrays.setAll(phrase, i -> WORDS[random.nextInt(WORDS.length)]);
+        return String.join(" ", phrase);
+    }
+}
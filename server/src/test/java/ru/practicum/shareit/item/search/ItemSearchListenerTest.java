@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchListenerTest {
+    @Mock
+    private ItemSearch itemSearch;
+    private ItemSearchListener listener;
+    private final Item item = Item.builder().id(1L).name("Drill").description("Cordless drill").available(true).build();
+
+    @BeforeEach
+    void setUp() {
+        listener = new ItemSearchListener(new StaticListableBeanFactory(Map.of("itemSearch", itemSearch))
+                .getBeanProvider(ItemSearch.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void indexIsChangedAfterCommitTest() {
+        listener.onSave(item);
+        listener.onRemove(item);
+        verifyNoInteractions(itemSearch);
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        verify(itemSearch).index(item);
+        verify(itemSearch).remove(item);
+    }
+
+    @Test
+    void rolledBackSaveIsNotIndexedTest() {
+        listener.onSave(item);
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(itemSearch);
+    }
+}
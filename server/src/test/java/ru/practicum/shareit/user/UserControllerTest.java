@@ -15,15 +15,18 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -48,6 +51,19 @@ class UserControllerTest {
                 .build();
     }
 
+    @Test
+    public void createUsersTest() throws Exception {
+        when(userService.addUsers(any())).thenReturn(List.of(userDto));
+        mockMvc.perform(post("/users/bulk")
+                        .content(objectMapper.writeValueAsString(List.of(userDto)))
+                        .contentType("application/json")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
+    }
+
     @Test
     public void createUserTest() throws Exception {
         when(userService.addUser(any())).thenReturn(userDto);
@@ -116,15 +132,51 @@ class UserControllerTest {
     public void getAllUsersTest() throws Exception {
         List<UserDto> users = new ArrayList<>();
         users.add(userDto);
-        when(userService.getAllUsers()).thenReturn(users);
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            users.forEach(action);
+            return null;
+        }).when(userService).forEachUser(any());
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(userDto.getName())))
                 .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
     }
 
+    @Test
+    public void getAllUsersAsNdjsonTest() throws Exception {
+        UserDto another = UserDto.builder().id(2L).name("Mary_Sue").email("mary@test.com").build();
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(another);
+            return null;
+        }).when(userService).forEachUser(any());
+        mockMvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(userDto) + "\n"
+                        + objectMapper.writeValueAsString(another) + "\n"));
+    }
+
+    @Test
+    public void getUsersAfterTest() throws Exception {
+        when(userService.getUsersAfter(0L, 5)).thenReturn(List.of(userDto));
+        mockMvc.perform(get("/users").param("after", "0").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class));
+    }
+
+    @Test
+    public void getUsersAfterWithWrongSizeTest() throws Exception {
+        mockMvc.perform(get("/users").param("after", "0").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void updateUserTest() throws Exception {
         userDto.setName("Mary_Sue");
@@ -1,22 +1,30 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(properties = {"db.name=test"})
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class UserServiceIntegrationTest {
     private final UserService userService;
+    private final EntityManager entityManager;
     private UserDto user1;
     private UserDto user2;
     private UserDto user3;
@@ -63,14 +71,68 @@ public class UserServiceIntegrationTest {
 
     @Test
     public void updateUserTest() {
-        userService.addUser(user3);
-        user4.setId(3L);
-        userService.updateUser(3L, user4);
+        long userId = userService.addUser(user3).getId();
+        user4.setId(userId);
+        userService.updateUser(userId, user4);
 
-        UserDto expectedUser = userService.getUserById(3L);
+        UserDto expectedUser = userService.getUserById(userId);
 
         assertEquals(expectedUser.getName(), user4.getName());
         assertEquals(expectedUser.getEmail(), user4.getEmail());
     }
 
+    @Test
+    public void addUsersTest() {
+        List<UserDto> users = userService.addUsers(List.of(user1, user2, user3));
+
+        assertEquals(3, users.size());
+        assertEquals(user2.getEmail(), users.get(1).getEmail());
+        assertEquals(users.get(2).getName(), userService.getUserById(users.get(2).getId()).getName());
+    }
+
+    @Test
+    public void addUsersWithTakenEmailTest() {
+        userService.addUser(user1);
+        user4.setEmail(user1.getEmail());
+
+        assertThrows(AlreadyExistsException.class, () -> userService.addUsers(List.of(user2, user4)));
+    }
+
+    @Test
+    public void addUsersWithExistingIdTest() {
+        long existingId = userService.addUser(user1).getId();
+        user2.setId(existingId);
+
+        List<UserDto> users = userService.addUsers(List.of(user2));
+
+        assertNotEquals(existingId, users.get(0).getId());
+        assertEquals(user1.getEmail(), userService.getUserById(existingId).getEmail());
+        assertEquals(2, userService.getAllUsers().size());
+    }
+
+    @Test
+    public void forEachUserTest() {
+        List<UserDto> users = userService.addUsers(List.of(user1, user2, user3));
+        List<UserDto> streamed = new ArrayList<>();
+
+        userService.forEachUser(streamed::add);
+
+        List<Long> ids = streamed.stream().map(UserDto::getId).collect(Collectors.toList());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+        assertEquals(users.stream().map(UserDto::getId).collect(Collectors.toList()),
+                ids.subList(ids.size() - 3, ids.size()));
+        assertEquals(user3.getEmail(), streamed.get(streamed.size() - 1).getEmail());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void getUsersAfterTest() {
+        List<UserDto> users = userService.addUsers(List.of(user1, user2, user3));
+
+        List<UserDto> page = userService.getUsersAfter(users.get(0).getId(), 1);
+
+        assertEquals(1, page.size());
+        assertEquals(users.get(1).getId(), page.get(0).getId());
+        assertEquals(0, userService.getUsersAfter(users.get(2).getId(), 10).size());
+    }
 }
@@ -9,9 +9,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +30,10 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
     @InjectMocks
     private UserServiceImpl userService;
     private UserDto userDto;
@@ -156,7 +164,10 @@ class UserServiceTest {
     @Test
     public void deleteUserTest() {
         doNothing().when(userRepository).deleteById(anyLong());
+        when(entityManagerFactory.getCache()).thenReturn(cache);
         userService.deleteUser(altUserDto.getId());
         verify(userRepository, times(1)).deleteById(2L);
+        verify(cache).evict(Item.class);
+        verify(cache).evict(ItemRequest.class);
     }
 }